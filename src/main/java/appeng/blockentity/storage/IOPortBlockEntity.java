@@ -18,6 +18,7 @@
 
 package appeng.blockentity.storage;
 
+import java.util.ArrayList;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
@@ -322,48 +323,45 @@ private long transferContents(final IEnergySource energy, final IMEInventory src
 
         itemsToMove *= chan.transferFactor();
 
-        boolean didStuff;
-
-        do {
-            didStuff = false;
-
-            for (final IAEStack s : myList) {
-                final long totalStackSize = s.getStackSize();
-                if (totalStackSize > 0) {
-                    final IAEStack stack = destination.injectItems(s, Actionable.SIMULATE, this.mySrc);
-
-                    long possible = 0;
-                    if (stack == null) {
-                        possible = totalStackSize;
-                    } else {
-                        possible = totalStackSize - stack.getStackSize();
-                    }
+        // Plan the transfers in a single pass over the source listing, simulating each stack once. Extracting
+        // modifies the listing, so nothing is moved until the pass is done.
+        final List<IAEStack> planned = new ArrayList<>();
+        long plannedAmount = 0;
+        for (final IAEStack s : myList) {
+            if (plannedAmount >= itemsToMove) {
+                break;
+            }
 
-                    if (possible > 0) {
-                        possible = Math.min(possible, itemsToMove);
-                        s.setStackSize(possible);
+            final long available = Math.min(s.getStackSize(), itemsToMove - plannedAmount);
+            if (available > 0) {
+                final IAEStack request = IAEStack.copy(s, available);
+                final IAEStack rejected = destination.injectItems(request, Actionable.SIMULATE, this.mySrc);
+                final long possible = available - IAEStack.getStackSizeOrZero(rejected);
 
-                        final IAEStack extracted = src.extractItems(s, Actionable.MODULATE, this.mySrc);
-                        if (extracted != null) {
-                            possible = extracted.getStackSize();
-                            final IAEStack failed = Platform.poweredInsert(energy, destination, extracted, this.mySrc);
+                if (possible > 0) {
+                    request.setStackSize(possible);
+                    planned.add(request);
+                    plannedAmount += possible;
+                }
+            }
+        }
 
-                            if (failed != null) {
-                                possible -= failed.getStackSize();
-                                src.injectItems(failed, Actionable.MODULATE, this.mySrc);
-                            }
+        for (final IAEStack request : planned) {
+            final IAEStack extracted = src.extractItems(request, Actionable.MODULATE, this.mySrc);
+            if (extracted != null) {
+                long moved = extracted.getStackSize();
+                final IAEStack failed = Platform.poweredInsert(energy, destination, extracted, this.mySrc);
 
-                            if (possible > 0) {
-                                itemsToMove -= possible;
-                                didStuff = true;
-                            }
+                if (failed != null) {
+                    moved -= failed.getStackSize();
+                    src.injectItems(failed, Actionable.MODULATE, this.mySrc);
+                }
 
-                            break;
-                        }
-                    }
+                if (moved > 0) {
+                    itemsToMove -= moved;
                 }
             }
-        } while (itemsToMove > 0 && didStuff);
+        }
 
         return itemsToMove / chan.transferFactor();
     }
@@ -19,9 +19,12 @@
 package appeng.client.gui.me.common;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -31,6 +34,10 @@
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.network.chat.Component;
+
 import appeng.api.config.SearchBoxMode;
 import appeng.api.config.SortDir;
 import appeng.api.config.SortOrder;
@@ -59,6 +66,15 @@
 
     private final BiMap<Long, GridInventoryEntry<T>> entries = HashBiMap.create();
     private final ArrayList<GridInventoryEntry<T>> view = new ArrayList<>();
+    // Search text and sort keys of entries, by serial. Built lazily when an entry is first searched or sorted.
+    private final Long2ObjectOpenHashMap<EntryInfo> entryInfos = new Long2ObjectOpenHashMap<>();
+    // The query that produced the current view, or null if the view has to be rebuilt
+    @Nullable
+    private ViewQuery viewQuery;
+    @Nullable
+    private Comparator<GridInventoryEntry<T>> viewComparator;
+    // Entries that changed since the view was last updated, to apply them to the view incrementally
+    private final List<EntryChange<T>> pendingChanges = new ArrayList<>();
     private IPartitionList<T> partitionList;
     private Runnable updateViewListener;
 
@@ -102,30 +118,32 @@ private void handleUpdate(GridInventoryEntry<T> serverEntry) {
             }
             if (serverEntry.isMeaningful()) {
                 entries.put(serverEntry.getSerial(), serverEntry);
+                pendingChanges.add(new EntryChange<>(null, serverEntry));
             }
             return;
         }
 
         // Update the local entry
+        GridInventoryEntry<T> updatedEntry;
         if (!serverEntry.isMeaningful()) {
             entries.remove(serverEntry.getSerial());
+            updatedEntry = null;
         } else if (serverEntry.getStack() == null) {
-            entries.put(serverEntry.getSerial(), new GridInventoryEntry<>(
+            updatedEntry = new GridInventoryEntry<>(
                     serverEntry.getSerial(),
                     localEntry.getStack(),
                     serverEntry.getStoredAmount(),
                     serverEntry.getRequestableAmount(),
-                    serverEntry.isCraftable()));
+                    serverEntry.isCraftable());
+            entries.put(serverEntry.getSerial(), updatedEntry);
         } else {
+            updatedEntry = serverEntry;
             entries.put(serverEntry.getSerial(), serverEntry);
         }
+        pendingChanges.add(new EntryChange<>(localEntry, updatedEntry));
     }
 
     public final void updateView() {
-        this.view.clear();
-
-        this.view.ensureCapacity(this.entries.size());
-
         this.updateJEI(this.searchString);
 
         SearchMode searchMode = SearchMode.NAME;
@@ -139,43 +157,122 @@ public final void updateView() {
             innerSearch = innerSearch.substring(1);
         }
 
-        Pattern m;
-        try {
-            m = Pattern.compile(innerSearch.toLowerCase(),
-                    Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
-        } catch (PatternSyntaxException ignored) {
-            m = Pattern.compile(Pattern.quote(innerSearch.toLowerCase()),
-                    Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        innerSearch = innerSearch.toLowerCase(Locale.ROOT);
+        boolean literal = isLiteral(innerSearch);
+        Predicate<String> matcher;
+        if (literal) {
+            matcher = createLiteralMatcher(innerSearch);
+        } else {
+            Pattern m;
+            try {
+                m = Pattern.compile(innerSearch, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+            } catch (PatternSyntaxException ignored) {
+                m = Pattern.compile(Pattern.quote(innerSearch), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+            }
+            matcher = m.asPredicate();
         }
 
         ViewItems viewMode = this.sortSrc.getSortDisplay();
+        SortOrder sortOrder = this.sortSrc.getSortBy();
+        SortDir sortDir = this.sortSrc.getSortDir();
+
+        var query = new ViewQuery(searchMode, innerSearch, literal, viewMode, this.partitionList, sortOrder,
+                sortDir);
 
-        for (GridInventoryEntry<T> entry : this.entries.values()) {
-            if (this.partitionList != null && !this.partitionList.isListed(entry.getStack())) {
-                continue;
+        boolean sameQuery = query.equals(this.viewQuery);
+        // Applying a change costs a binary search and shifting part of the view, so past a certain number of changes
+        // it's cheaper to rebuild the view and sort it once
+        boolean fewChanges = this.pendingChanges.size() <= Math.max(64, this.view.size() / 8);
+
+        if ((sameQuery || query.refines(this.viewQuery)) && fewChanges) {
+            for (var change : this.pendingChanges) {
+                this.applyChange(change, query, matcher);
+            }
+            if (!sameQuery) {
+                // The current view is a superset of the new one and already sorted, so it only has to be filtered
+                this.view.removeIf(entry -> !matchesSearch(query.searchMode(), matcher, entry));
             }
+        } else {
+            this.viewComparator = createComparator(sortOrder, sortDir);
+
+            this.view.clear();
+            this.view.ensureCapacity(this.entries.size());
 
-            if (viewMode == ViewItems.CRAFTABLE && !entry.isCraftable()) {
-                continue;
+            for (GridInventoryEntry<T> entry : this.entries.values()) {
+                if (isVisible(entry, query, matcher)) {
+                    this.view.add(entry);
+                }
             }
 
-            if (viewMode == ViewItems.STORED && entry.getStoredAmount() == 0) {
-                continue;
+            this.view.sort(this.viewComparator);
+        }
+        this.viewQuery = query;
+
+        // Forget the cached keys of removed entries only now, since removing them from the view still needs them
+        for (var change : this.pendingChanges) {
+            if (change.updated() == null) {
+                this.entryInfos.remove(change.previous().getSerial());
             }
+        }
+        this.pendingChanges.clear();
 
-            if (matchesSearch(searchMode, m, entry.getStack())) {
-                this.view.add(entry);
+        if (this.updateViewListener != null) {
+            this.updateViewListener.run();
+        }
+    }
+
+    private void applyChange(EntryChange<T> change, ViewQuery query, Predicate<String> matcher) {
+        if (change.previous() != null) {
+            int index = Collections.binarySearch(this.view, change.previous(), this.viewComparator);
+            if (index >= 0 && this.view.get(index) == change.previous()) {
+                this.view.remove(index);
             }
         }
 
-        SortOrder sortOrder = this.sortSrc.getSortBy();
-        SortDir sortDir = this.sortSrc.getSortDir();
+        var updated = change.updated();
+        if (updated != null && isVisible(updated, query, matcher)) {
+            int index = Collections.binarySearch(this.view, updated, this.viewComparator);
+            if (index < 0) {
+                this.view.add(-index - 1, updated);
+            } else {
+                this.view.set(index, updated);
+            }
+        }
+    }
 
-        this.view.sort(Comparator.comparing(GridInventoryEntry::getStack, getComparator(sortOrder, sortDir)));
+    private boolean isVisible(GridInventoryEntry<T> entry, ViewQuery query, Predicate<String> matcher) {
+        if (this.partitionList != null && !this.partitionList.isListed(entry.getStack())) {
+            return false;
+        }
 
-        if (this.updateViewListener != null) {
-            this.updateViewListener.run();
+        ViewItems viewMode = query.viewMode();
+        if (viewMode == ViewItems.CRAFTABLE && !entry.isCraftable()) {
+            return false;
+        }
+
+        if (viewMode == ViewItems.STORED && entry.getStoredAmount() == 0) {
+            return false;
+        }
+
+        return matchesSearch(query.searchMode(), matcher, entry);
+    }
+
+    private Comparator<GridInventoryEntry<T>> createComparator(SortOrder sortOrder, SortDir sortDir) {
+        Comparator<GridInventoryEntry<T>> nameComparator = Comparator.comparing(
+                entry -> getEntryInfo(entry).displayName, String::compareToIgnoreCase);
+
+        Comparator<GridInventoryEntry<T>> comparator = switch (sortOrder) {
+            case NAME -> nameComparator;
+            case AMOUNT -> Comparator.comparingLong(GridInventoryEntry::getStoredAmount);
+            case MOD -> Comparator.<GridInventoryEntry<T>, String>comparing(
+                    entry -> getEntryInfo(entry).modId, String::compareToIgnoreCase).thenComparing(nameComparator);
+        };
+        if (sortDir == SortDir.DESCENDING) {
+            comparator = comparator.reversed();
         }
+
+        // Ties are broken by serial, so that every entry has a unique position in the view to search for
+        return comparator.thenComparingLong(GridInventoryEntry::getSerial);
     }
 
     @Nullable
@@ -195,6 +292,9 @@ public final int size() {
     public final void clear() {
         this.entries.clear();
         this.view.clear();
+        this.entryInfos.clear();
+        this.pendingChanges.clear();
+        this.viewQuery = null;
     }
 
     public final boolean hasPower() {
@@ -232,9 +332,74 @@ protected final void setSynchronizeWithJEI(boolean enable) {
         this.synchronizeWithJEI = enable;
     }
 
-    protected abstract boolean matchesSearch(SearchMode searchMode, Pattern searchPattern, T stack);
+    private boolean matchesSearch(SearchMode searchMode, Predicate<String> matcher, GridInventoryEntry<T> entry) {
+        var text = getEntryInfo(entry);
+
+        if (searchMode == SearchMode.MOD) {
+            return matcher.test(text.searchModId);
+        }
+
+        if (matcher.test(text.searchDisplayName)) {
+            return true;
+        }
+
+        if (searchMode == SearchMode.NAME_OR_TOOLTIP) {
+            // Tooltips are expensive to build, so they are only resolved once a tooltip search needs them
+            if (text.tooltipLines == null) {
+                var tooltip = getTooltip(entry.getStack());
+                text.tooltipLines = new String[tooltip.size()];
+                for (int i = 0; i < tooltip.size(); i++) {
+                    text.tooltipLines[i] = tooltip.get(i).getString().toLowerCase(Locale.ROOT);
+                }
+            }
+            for (String line : text.tooltipLines) {
+                if (matcher.test(line)) {
+                    return true;
+                }
+            }
+        }
 
-    protected abstract Comparator<? super T> getComparator(SortOrder sortBy, SortDir sortDir);
+        return false;
+    }
+
+    private EntryInfo getEntryInfo(GridInventoryEntry<T> entry) {
+        var info = this.entryInfos.get(entry.getSerial());
+        if (info == null) {
+            info = new EntryInfo(getModId(entry.getStack()), getDisplayName(entry.getStack()));
+            this.entryInfos.put(entry.getSerial(), info);
+        }
+        return info;
+    }
+
+    /**
+     * @return True if the search term contains no regular expression syntax, so it can be matched as a substring.
+     */
+    private static boolean isLiteral(String search) {
+        for (int i = 0; i < search.length(); i++) {
+            if ("\\^$.|?*+()[]{}".indexOf(search.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Predicate<String> createLiteralMatcher(String search) {
+        if (search.isEmpty()) {
+            return text -> true;
+        }
+        return text -> text.contains(search);
+    }
+
+    protected abstract String getModId(T stack);
+
+    protected abstract String getDisplayName(T stack);
+
+    /**
+     * @return The tooltip lines to search in when searching tooltips is enabled.
+     */
+    protected List<Component> getTooltip(T stack) {
+        return Collections.emptyList();
+    }
 
     @Override
     public Set<GridInventoryEntry<T>> getAllEntries() {
@@ -251,4 +416,41 @@ protected enum SearchMode {
         NAME_OR_TOOLTIP
     }
 
+    private static final class EntryInfo {
+        private final String modId;
+        private final String displayName;
+        private final String searchModId;
+        private final String searchDisplayName;
+        @Nullable
+        private String[] tooltipLines;
+
+        private EntryInfo(String modId, String displayName) {
+            this.modId = modId;
+            this.displayName = displayName;
+            this.searchModId = modId.toLowerCase(Locale.ROOT);
+            this.searchDisplayName = displayName.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record EntryChange<T extends IAEStack> (@Nullable GridInventoryEntry<T> previous,
+            @Nullable GridInventoryEntry<T> updated) {
+    }
+
+    private record ViewQuery(SearchMode searchMode, String search, boolean literal, ViewItems viewMode,
+            @Nullable IPartitionList<?> partitionList, SortOrder sortOrder, SortDir sortDir) {
+        /**
+         * @return True if this query only shows a subset of what the previous query showed, in the same order.
+         */
+        boolean refines(@Nullable ViewQuery previous) {
+            return previous != null
+                    && this.literal && previous.literal
+                    && this.searchMode == previous.searchMode
+                    && this.search.contains(previous.search)
+                    && this.viewMode == previous.viewMode
+                    && this.partitionList == previous.partitionList
+                    && this.sortOrder == previous.sortOrder
+                    && this.sortDir == previous.sortDir;
+        }
+    }
+
 }
@@ -18,11 +18,6 @@
 
 package appeng.client.gui.me.fluids;
 
-import java.util.Comparator;
-import java.util.regex.Pattern;
-
-import appeng.api.config.SortDir;
-import appeng.api.config.SortOrder;
 import appeng.api.storage.data.IAEFluidStack;
 import appeng.client.gui.me.common.Repo;
 import appeng.client.gui.widgets.IScrollSource;
@@ -36,19 +31,13 @@ public FluidRepo(IScrollSource src, ISortSource sortSrc) {
     }
 
     @Override
-    protected boolean matchesSearch(SearchMode searchMode, Pattern searchPattern, IAEFluidStack stack) {
-        if (searchMode == SearchMode.MOD) {
-            String modId = Platform.getModId(stack);
-            return searchPattern.matcher(modId).find();
-        }
-
-        String displayName = Platform.getFluidDisplayName(stack).getString();
-        return searchPattern.matcher(displayName).find();
+    protected String getModId(IAEFluidStack stack) {
+        return Platform.getModId(stack);
     }
 
     @Override
-    protected Comparator<? super IAEFluidStack> getComparator(SortOrder sortBy, SortDir sortDir) {
-        return FluidSorters.getComparator(sortBy, sortDir);
+    protected String getDisplayName(IAEFluidStack stack) {
+        return Platform.getFluidDisplayName(stack).getString();
     }
 
 }
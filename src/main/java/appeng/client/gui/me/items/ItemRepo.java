@@ -18,14 +18,10 @@
 
 package appeng.client.gui.me.items;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.regex.Pattern;
 
 import net.minecraft.network.chat.Component;
 
-import appeng.api.config.SortDir;
-import appeng.api.config.SortOrder;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.client.gui.me.common.Repo;
 import appeng.client.gui.widgets.IScrollSource;
@@ -41,35 +37,18 @@ public ItemRepo(IScrollSource src, ISortSource sortSrc) {
     }
 
     @Override
-    protected boolean matchesSearch(SearchMode searchMode, Pattern searchPattern, IAEItemStack stack) {
-        if (searchMode == SearchMode.MOD) {
-            String modId = Platform.getModId(stack);
-            return searchPattern.matcher(modId).find();
-        }
-
-        AEItemStack aeStack = (AEItemStack) stack;
-
-        String displayName = aeStack.getDisplayName().getString();
-        if (searchPattern.matcher(displayName).find()) {
-            return true;
-        }
-
-        if (searchMode == SearchMode.NAME_OR_TOOLTIP) {
-            List<Component> tooltip = aeStack.getToolTip();
-
-            for (Component line : tooltip) {
-                if (searchPattern.matcher(line.getString()).find()) {
-                    return true;
-                }
-            }
-        }
+    protected String getModId(IAEItemStack stack) {
+        return Platform.getModId(stack);
+    }
 
-        return false;
+    @Override
+    protected String getDisplayName(IAEItemStack stack) {
+        return ((AEItemStack) stack).getDisplayName().getString();
     }
 
     @Override
-    protected Comparator<? super IAEItemStack> getComparator(SortOrder sortBy, SortDir sortDir) {
-        return ItemSorters.getComparator(sortBy, sortDir);
+    protected List<Component> getTooltip(IAEItemStack stack) {
+        return ((AEItemStack) stack).getToolTip();
     }
 
 }
@@ -86,6 +86,7 @@ public final class AEConfig {
     private boolean useLargeFonts;
     private boolean useColoredCraftingStatus;
     private int craftingCalculationTimePerTick;
+    private boolean craftingCalculationConcurrent;
     private PowerUnits selectedPowerUnit = PowerUnits.AE;
 
     // GUI Buttons
@@ -175,6 +176,7 @@ private void syncCommonConfig() {
         this.spatialPowerExponent = COMMON.spatialPowerExponent.get();
 
         this.craftingCalculationTimePerTick = COMMON.craftingCalculationTimePerTick.get();
+        this.craftingCalculationConcurrent = COMMON.craftingCalculationConcurrent.get();
 
         this.removeCrashingItemsOnLoad = COMMON.removeCrashingItemsOnLoad.get();
 
@@ -304,6 +306,10 @@ public int getCraftingCalculationTimePerTick() {
         return this.craftingCalculationTimePerTick;
     }
 
+    public boolean isCraftingCalculationConcurrent() {
+        return this.craftingCalculationConcurrent;
+    }
+
     public double getSpatialPowerExponent() {
         return this.spatialPowerExponent;
     }
@@ -485,6 +491,7 @@ private static class CommonConfig {
         public final BooleanValue removeCrashingItemsOnLoad;
         public final ConfigValue<Integer> formationPlaneEntityLimit;
         public final ConfigValue<Integer> craftingCalculationTimePerTick;
+        public final BooleanValue craftingCalculationConcurrent;
         public final BooleanValue allowBlockEntityFacades;
         public final BooleanValue debugTools;
         public final BooleanValue matterCannonBlockDamage;
@@ -581,6 +588,9 @@ public CommonConfig(ForgeConfigSpec.Builder builder) {
             builder.push("craftingCPU");
 
             this.craftingCalculationTimePerTick = builder.define("craftingCalculationTimePerTick", 5);
+            this.craftingCalculationConcurrent = builder.comment(
+                    "Run crafting calculations alongside the server instead of in slices of craftingCalculationTimePerTick. The calculation then works on a snapshot of the network, which is checked again when the job is submitted.")
+                    .define("craftingCalculationConcurrent", false);
 
             builder.pop();
 
@@ -32,6 +32,7 @@
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
@@ -46,6 +47,7 @@
 import net.minecraft.world.level.levelgen.feature.Feature;
 import net.minecraft.world.level.levelgen.feature.StructureFeature;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.AddReloadListenerEvent;
 import net.minecraftforge.event.RegistryEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.fml.ModLoadingContext;
@@ -64,6 +66,7 @@
 import appeng.core.definitions.AEParts;
 import appeng.core.sync.BasePacket;
 import appeng.core.sync.network.NetworkHandler;
+import appeng.crafting.pattern.DecodedPatternCache;
 import appeng.hooks.SkyStoneBreakSpeed;
 import appeng.hooks.ticking.TickHandler;
 import appeng.init.InitBlockEntities;
@@ -160,6 +163,7 @@ public AppEngBase() {
         MinecraftForge.EVENT_BUS.addListener(this::serverStopped);
         MinecraftForge.EVENT_BUS.addListener(this::serverStopping);
         MinecraftForge.EVENT_BUS.addListener(this::registerCommands);
+        MinecraftForge.EVENT_BUS.addListener(this::addReloadListeners);
 
         MinecraftForge.EVENT_BUS.register(new PartPlacement());
         MinecraftForge.EVENT_BUS.addListener(InitBiomeModifications::init);
@@ -250,6 +254,12 @@ private void serverStopping(final FMLServerStoppingEvent event) {
 
     private void serverStopped(final FMLServerStoppedEvent event) {
         TickHandler.instance().shutdown();
+        DecodedPatternCache.invalidate();
+    }
+
+    private void addReloadListeners(final AddReloadListenerEvent event) {
+        // Decoded crafting patterns hold on to the recipes they were decoded with.
+        event.addListener((ResourceManagerReloadListener) resourceManager -> DecodedPatternCache.invalidate());
     }
 
     @Override
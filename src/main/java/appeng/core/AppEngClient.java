@@ -34,6 +34,7 @@
 import net.minecraft.world.phys.HitResult;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
 import net.minecraftforge.client.event.ColorHandlerEvent;
 import net.minecraftforge.client.event.EntityRenderersEvent;
 import net.minecraftforge.client.event.InputEvent;
@@ -74,6 +75,7 @@
 import appeng.init.client.InitRenderTypes;
 import appeng.init.client.InitScreens;
 import appeng.init.client.InitStackRenderHandlers;
+import appeng.menu.me.common.StackDictionary;
 import appeng.util.InteractionUtil;
 import appeng.util.Platform;
 
@@ -154,6 +156,11 @@ private void clientSetup(FMLClientSetupEvent event) {
 
         MinecraftForge.EVENT_BUS.addListener(this::wheelEvent);
         MinecraftForge.EVENT_BUS.register(OverlayManager.getInstance());
+        // The stack dictionary mirrors the server's dictionary for the current connection only
+        MinecraftForge.EVENT_BUS.addListener(
+                (ClientPlayerNetworkEvent.LoggedInEvent e) -> StackDictionary.clearClient());
+        MinecraftForge.EVENT_BUS.addListener(
+                (ClientPlayerNetworkEvent.LoggedOutEvent e) -> StackDictionary.clearClient());
 
         for (ActionKey key : ActionKey.values()) {
             final KeyMapping binding = new KeyMapping(key.getTranslationKey(), key.getDefaultKey(), KEY_CATEGORY);
@@ -50,6 +50,7 @@
 import appeng.core.sync.packets.NetworkStatusPacket;
 import appeng.core.sync.packets.PartPlacementPacket;
 import appeng.core.sync.packets.PatternSlotPacket;
+import appeng.core.sync.packets.StackDictionaryResetPacket;
 import appeng.core.sync.packets.SwapSlotsPacket;
 import appeng.core.sync.packets.SwitchGuisPacket;
 
@@ -111,7 +112,9 @@ public enum PacketTypes {
 
         CRAFTING_STATUS(CraftingStatusPacket.class, CraftingStatusPacket::new),
 
-        MOUSE_WHEEL(MouseWheelPacket.class, MouseWheelPacket::new);
+        MOUSE_WHEEL(MouseWheelPacket.class, MouseWheelPacket::new),
+
+        STACK_DICTIONARY_RESET(StackDictionaryResetPacket.class, StackDictionaryResetPacket::new);
 
         private final Function<FriendlyByteBuf, BasePacket> factory;
 
@@ -34,15 +34,15 @@
 import appeng.api.storage.IStorageChannel;
 import appeng.api.storage.StorageChannels;
 import appeng.api.storage.data.IAEStack;
-import appeng.api.storage.data.IAEStackList;
 import appeng.core.AELog;
 import appeng.core.sync.BasePacket;
 import appeng.core.sync.BasePacketHandler;
 import appeng.core.sync.network.INetworkInfo;
+import appeng.core.sync.network.NetworkHandler;
 import appeng.menu.me.common.GridInventoryEntry;
 import appeng.menu.me.common.IClientRepo;
-import appeng.menu.me.common.IncrementalUpdateHelper;
 import appeng.menu.me.common.MEMonitorableMenu;
+import appeng.menu.me.common.StackDictionary;
 
 public class MEInventoryUpdatePacket extends BasePacket {
 
@@ -111,7 +111,21 @@ public void apply(MEMonitorableMenu<T> menu, boolean fullUpdate) {
     public MEInventoryUpdatePacket(FriendlyByteBuf data) {
         this.containerId = data.readVarInt();
         this.fullUpdate = data.readBoolean();
-        this.storageList = StorageList.read(data);
+        if (data.readBoolean()) {
+            // The server started over with an empty stack dictionary
+            StackDictionary.clearClient();
+        }
+        try {
+            this.storageList = StorageList.read(data);
+        } catch (RuntimeException e) {
+            // Stacks defined in the rest of the packet are lost
+            StackDictionary.markClientOutOfSync();
+            throw e;
+        } finally {
+            if (StackDictionary.pollClientResetRequest()) {
+                NetworkHandler.instance().sendToServer(new StackDictionaryResetPacket());
+            }
+        }
     }
 
     // api
@@ -135,59 +149,25 @@ private MEInventoryUpdatePacket() {
 
         private int itemCount;
 
-        public Builder(IStorageChannel<T> storageChannel, int containerId, boolean fullUpdate) {
+        // Only the first packet tells the client to clear its stack dictionary
+        private boolean resetDictionary;
+
+        public Builder(IStorageChannel<T> storageChannel, int containerId, boolean fullUpdate,
+                boolean resetDictionary) {
             this.containerId = containerId;
             this.storageChannel = storageChannel;
+            this.resetDictionary = resetDictionary;
 
             // If we are to send a full update, initialize the data buffer to ensure it is sent even if no
-            // items are ever added (this indicates clearing the inventory client-side)
-            if (fullUpdate) {
-                data = createPacketHeader(true);
+            // items are ever added (this indicates clearing the inventory client-side). The same goes for
+            // resetting the dictionary, since the server assumes it was reset once the packets are sent.
+            if (fullUpdate || resetDictionary) {
+                data = createPacketHeader(fullUpdate);
             } else {
                 data = null;
             }
         }
 
-        public void addFull(IncrementalUpdateHelper<T> updateHelper,
-                IAEStackList<T> stacks) {
-            for (T item : stacks) {
-                long serial = updateHelper.getOrAssignSerial(item);
-                add(new GridInventoryEntry<>(serial, item, item.getStackSize(), item.getCountRequestable(),
-                        item.isCraftable()));
-            }
-        }
-
-        public void addChanges(IncrementalUpdateHelper<T> updateHelper, IAEStackList<T> stacks) {
-            for (T key : updateHelper) {
-                T sendKey;
-                Long serial = updateHelper.getSerial(key);
-
-                // Try to serialize the item into the buffer
-                if (serial == null) {
-                    // This is a new key, not sent to the client
-                    sendKey = key;
-                    serial = updateHelper.getOrAssignSerial(key);
-                } else {
-                    // This is an incremental update referring back to the serial
-                    sendKey = null;
-                }
-
-                // The queued changes are actual differences, but we need to send the real stored properties
-                // to the client.
-                T stored = stacks.findPrecise(key);
-                if (stored == null || !stored.isMeaningful()) {
-                    // This happens when an update is queued but the item is no longer stored
-                    add(new GridInventoryEntry<>(serial, sendKey, 0, 0, false));
-                    key.reset(); // Ensure it is deleted on commit, since the client will also clear it
-                } else {
-                    add(new GridInventoryEntry<>(serial, sendKey, stored.getStackSize(), stored.getCountRequestable(),
-                            stored.isCraftable()));
-                }
-            }
-
-            updateHelper.commitChanges();
-        }
-
         public void add(GridInventoryEntry<T> entry) {
             FriendlyByteBuf data = ensureData();
 
@@ -196,6 +176,25 @@ public void add(GridInventoryEntry<T> entry) {
             // We'll normaly flush much much earlier (32k)
             entry.write(data);
 
+            onEntryAdded(data);
+        }
+
+        /**
+         * Adds an entry whose stack was already encoded using {@link GridInventoryEntry#encodeStack}.
+         *
+         * @see GridInventoryEntry#write(FriendlyByteBuf, long, byte[], int, long, long, boolean)
+         */
+        public void add(long serial, @Nullable byte[] encodedStack, int dictionarySlot, long storedAmount,
+                long requestableAmount, boolean craftable) {
+            FriendlyByteBuf data = ensureData();
+
+            GridInventoryEntry.write(data, serial, encodedStack, dictionarySlot, storedAmount, requestableAmount,
+                    craftable);
+
+            onEntryAdded(data);
+        }
+
+        private void onEntryAdded(FriendlyByteBuf data) {
             ++itemCount;
 
             if (data.writerIndex() >= UNCOMPRESSED_PACKET_BYTE_LIMIT || itemCount >= Short.MAX_VALUE) {
@@ -237,6 +236,8 @@ private FriendlyByteBuf createPacketHeader(boolean fullUpdate) {
             data.writeInt(BasePacketHandler.PacketTypes.ME_INVENTORY_UPDATE.getPacketId());
             data.writeVarInt(containerId);
             data.writeBoolean(fullUpdate);
+            data.writeBoolean(resetDictionary);
+            resetDictionary = false;
             data.writeResourceLocation(storageChannel.getId());
             // This is a placeholder for the item count and will be added at the end,
             // so we need to remember where in the stream we have written it
@@ -259,8 +260,9 @@ public void buildAndSend(Consumer<MEInventoryUpdatePacket> sender) {
 
     public static <T extends IAEStack> Builder<T> builder(IStorageChannel<T> storageChannel,
             int containerId,
-            boolean fullUpdate) {
-        return new Builder<>(storageChannel, containerId, fullUpdate);
+            boolean fullUpdate,
+            boolean resetDictionary) {
+        return new Builder<>(storageChannel, containerId, fullUpdate, resetDictionary);
     }
 
     @Override
@@ -0,0 +1,53 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2021, TeamAppliedEnergistics, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.core.sync.packets;
+
+import io.netty.buffer.Unpooled;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+
+import appeng.core.sync.BasePacket;
+import appeng.core.sync.network.INetworkInfo;
+import appeng.menu.me.common.MEMonitorableMenu;
+import appeng.menu.me.common.StackDictionary;
+
+/**
+ * Sent by the client when it received a reference to a stack dictionary slot it doesn't know. The server starts over
+ * with an empty dictionary and resends the inventory of the open terminal.
+ */
+public class StackDictionaryResetPacket extends BasePacket {
+
+    public StackDictionaryResetPacket(FriendlyByteBuf data) {
+    }
+
+    public StackDictionaryResetPacket() {
+        var data = new FriendlyByteBuf(Unpooled.buffer());
+        data.writeInt(this.getPacketID());
+        this.configureWrite(data);
+    }
+
+    @Override
+    public void serverPacketData(INetworkInfo manager, ServerPlayer player) {
+        StackDictionary.reset(player);
+        if (player.containerMenu instanceof MEMonitorableMenu<?>menu) {
+            menu.requestFullUpdate();
+        }
+    }
+}
@@ -39,6 +39,14 @@
 import appeng.crafting.inv.NetworkCraftingSimulationState;
 import appeng.hooks.ticking.TickHandler;
 
+/**
+ * Calculates a crafting plan on the crafting thread pool. The crafting tree is built when the calculation is created,
+ * on the server thread.
+ * <p>
+ * By default, the calculation runs in lockstep with the server and only gets a slice of time each tick, during which
+ * it queries the network for the stacks it needs. A concurrent calculation runs alongside the server on a snapshot of
+ * the network listing instead, and its plan is checked against the network again when it is submitted to a CPU.
+ */
 public class CraftingCalculation {
     private static final String LOG_CRAFTING_JOB = "CraftingCalculation (%s) issued by %s requesting [%s] using %s bytes took %s ms";
     private static final String LOG_MACHINE_SOURCE_DETAILS = "Machine[object=%s, %s, %s]";
@@ -56,15 +64,21 @@ public class CraftingCalculation {
     private boolean done = false;
     private int time = 5;
     private int incTime = Integer.MAX_VALUE;
+    private final boolean concurrent;
 
     public CraftingCalculation(Level level, IGrid grid, IActionSource actionSrc, IAEStack what) {
+        this(level, grid, actionSrc, what, false);
+    }
+
+    public CraftingCalculation(Level level, IGrid grid, IActionSource actionSrc, IAEStack what, boolean concurrent) {
         this.level = level;
         this.output = IAEStack.copy(what);
         this.actionSrc = actionSrc;
+        this.concurrent = concurrent;
 
         final ICraftingService cc = grid.getCraftingService();
         final IStorageService sg = grid.getStorageService();
-        this.networkInv = new NetworkCraftingSimulationState(sg, actionSrc);
+        this.networkInv = new NetworkCraftingSimulationState(sg, actionSrc, this.concurrent);
 
         this.tree = new CraftingTreeNode(cc, this, IAEStack.copy(what, (long) 1), null, -1);
     }
@@ -75,8 +89,10 @@ void addMissing(IAEStack stack) {
 
     public CraftingPlan run() {
         try {
-            TickHandler.instance().registerCraftingSimulation(this.level, this);
-            this.handlePausing();
+            if (!this.concurrent) {
+                TickHandler.instance().registerCraftingSimulation(this.level, this);
+                this.handlePausing();
+            }
 
             try {
                 return computeCraft(false);
@@ -118,21 +134,23 @@ void handlePausing() throws InterruptedException {
         if (this.incTime > 100) {
             this.incTime = 0;
 
-            synchronized (this.monitor) {
-                if (this.watch.elapsed(TimeUnit.MICROSECONDS) > this.time) {
-                    this.running = false;
-                    this.watch.stop();
-                    this.monitor.notify();
-                }
+            if (!this.concurrent) {
+                synchronized (this.monitor) {
+                    if (this.watch.elapsed(TimeUnit.MICROSECONDS) > this.time) {
+                        this.running = false;
+                        this.watch.stop();
+                        this.monitor.notify();
+                    }
 
-                if (!this.running) {
-                    AELog.craftingDebug("crafting job will now sleep");
+                    if (!this.running) {
+                        AELog.craftingDebug("crafting job will now sleep");
 
-                    while (!this.running) {
-                        this.monitor.wait();
-                    }
+                        while (!this.running) {
+                            this.monitor.wait();
+                        }
 
-                    AELog.craftingDebug("crafting job now active");
+                        AELog.craftingDebug("crafting job now active");
+                    }
                 }
             }
 
@@ -209,31 +209,14 @@ void request(final CraftingSimulationState inv, long requestedAmount,
         } else if (this.nodes.size() > 1) {
             // Multiple branches: try as much as possible of one branch before moving to the next one.
             for (final CraftingTreeProcess pro : this.nodes) {
-                try {
-                    while (pro.possible && totalRequestedItems > 0) {
-                        final ChildCraftingSimulationState child = new ChildCraftingSimulationState(inv);
-                        // craft one by one, using the sub inventory as target
-                        pro.request(child, 1);
-
-                        // by now we have succeeded, as request throws an exception in case of failure
-                        var available = child
-                                .extractItems(IAEStack.copy(this.what, totalRequestedItems), Actionable.MODULATE);
-
-                        if (available != null) {
-                            child.applyDiff(inv);
-
-                            totalRequestedItems -= available.getStackSize();
-
-                            if (totalRequestedItems <= 0) {
-                                return;
-                            }
-                        } else {
-                            pro.possible = false; // ;P
-                        }
-                    }
-                } catch (final CraftBranchFailure fail) {
-                    // TODO: why try again after a failure? just in case we receive the right inputs by chance?
-                    pro.possible = true;
+                if (pro.limitsQuantity()) {
+                    totalRequestedItems = this.requestOneByOne(inv, pro, totalRequestedItems);
+                } else {
+                    totalRequestedItems = this.requestInBulk(inv, pro, totalRequestedItems);
+                }
+
+                if (totalRequestedItems <= 0) {
+                    return;
                 }
             }
         }
@@ -245,6 +228,98 @@ void request(final CraftingSimulationState inv, long requestedAmount,
         }
     }
 
+    /**
+     * Crafts with the given branch one pattern at a time, which lets patterns that limit their quantity reuse their
+     * outputs and container items.
+     *
+     * @return the number of items that are still missing.
+     */
+    private long requestOneByOne(CraftingSimulationState inv, CraftingTreeProcess pro, long totalRequestedItems)
+            throws InterruptedException {
+        try {
+            while (pro.possible && totalRequestedItems > 0) {
+                final ChildCraftingSimulationState child = new ChildCraftingSimulationState(inv);
+                // craft one by one, using the sub inventory as target
+                pro.request(child, 1);
+
+                // by now we have succeeded, as request throws an exception in case of failure
+                var available = child
+                        .extractItems(IAEStack.copy(this.what, totalRequestedItems), Actionable.MODULATE);
+
+                if (available != null) {
+                    child.applyDiff(inv);
+
+                    totalRequestedItems -= available.getStackSize();
+                } else {
+                    pro.possible = false; // ;P
+                }
+            }
+        } catch (final CraftBranchFailure fail) {
+            // TODO: why try again after a failure? just in case we receive the right inputs by chance?
+            pro.possible = true;
+        }
+
+        return totalRequestedItems;
+    }
+
+    /**
+     * Crafts as much as possible with the given branch in as few simulations as possible. Everything is requested at
+     * once first, and if that fails, the largest number of crafts that still succeeds is found by binary search. Every
+     * attempt runs in its own sub inventory, so only the successful one is applied.
+     *
+     * @return the number of items that are still missing.
+     */
+    private long requestInBulk(CraftingSimulationState inv, CraftingTreeProcess pro, long totalRequestedItems)
+            throws InterruptedException {
+        var craftedPerPattern = pro.getOutputCount(this.what);
+        if (craftedPerPattern <= 0) {
+            return totalRequestedItems;
+        }
+
+        long times = (totalRequestedItems + craftedPerPattern - 1) / craftedPerPattern;
+        var child = this.tryRequest(inv, pro, times);
+
+        if (child == null) {
+            // Zero crafts always succeed, the requested number of crafts failed.
+            long succeeded = 0;
+            long failed = times;
+            while (failed - succeeded > 1) {
+                times = succeeded + (failed - succeeded) / 2;
+                var attempt = this.tryRequest(inv, pro, times);
+                if (attempt != null) {
+                    succeeded = times;
+                    child = attempt;
+                } else {
+                    failed = times;
+                }
+            }
+
+            if (child == null) {
+                return totalRequestedItems;
+            }
+        }
+
+        var available = child.extractItems(IAEStack.copy(this.what, totalRequestedItems), Actionable.MODULATE);
+        if (available == null) {
+            return totalRequestedItems;
+        }
+
+        child.applyDiff(inv);
+        return totalRequestedItems - available.getStackSize();
+    }
+
+    @Nullable
+    private ChildCraftingSimulationState tryRequest(CraftingSimulationState inv, CraftingTreeProcess pro, long times)
+            throws InterruptedException {
+        final ChildCraftingSimulationState child = new ChildCraftingSimulationState(inv);
+        try {
+            pro.request(child, times);
+            return child;
+        } catch (final CraftBranchFailure fail) {
+            return null;
+        }
+    }
+
     // Only item stacks are supported.
     private void addContainerItems(IAEStack template, long multiplier,
             @Nullable MixedStackList outputList) {
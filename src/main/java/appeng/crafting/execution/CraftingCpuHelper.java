@@ -40,11 +40,34 @@
 import appeng.api.storage.data.MixedStackList;
 import appeng.crafting.inv.ICraftingInventory;
 import appeng.crafting.inv.ListCraftingInventory;
+import appeng.me.service.CraftingService;
 
 /**
  * Helper functions used by the CPU.
  */
 public class CraftingCpuHelper {
+    /**
+     * Plans can be calculated against an older state of the network, check that the patterns and emitters they rely on
+     * are still there.
+     */
+    public static boolean isPlanStillCraftable(ICraftingPlan plan, IGrid grid) {
+        var craftingService = (CraftingService) grid.getCraftingService();
+
+        for (var details : plan.patternTimes().keySet()) {
+            if (Iterables.isEmpty(craftingService.getMediums(details))) {
+                return false;
+            }
+        }
+
+        for (var emitted : plan.emittedItems()) {
+            if (!craftingService.canEmitFor(emitted)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public static boolean tryExtractInitialItems(ICraftingPlan plan, IGrid grid,
             ListCraftingInventory cpuInventory, IActionSource src) {
         var storageService = grid.getStorageService();
@@ -18,6 +18,7 @@
 
 package appeng.crafting.execution;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
@@ -27,6 +28,7 @@
 import javax.annotation.Nullable;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
 
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.level.Level;
@@ -94,6 +96,10 @@ public ICraftingLink trySubmitJob(IGrid grid, ICraftingPlan plan, IActionSource
         if (!inventory.list.isEmpty())
             AELog.warn("Crafting CPU inventory is not empty yet a job was submitted.");
 
+        // Check that the network can still craft what the plan was calculated with.
+        if (!CraftingCpuHelper.isPlanStillCraftable(plan, grid))
+            return null;
+
         // Try to extract required items.
         if (!CraftingCpuHelper.tryExtractInitialItems(plan, grid, inventory, src))
             return null;
@@ -105,13 +111,18 @@ public ICraftingLink trySubmitJob(IGrid grid, ICraftingPlan plan, IActionSource
         cluster.updateOutput(plan.finalOutput());
         cluster.markDirty();
 
+        // Emitted items are already awaited, register them with the grid.
+        var craftingService = (CraftingService) grid.getCraftingService();
+        for (var stack : getWaitingForList()) {
+            craftingService.updateAwaitingCpu(cluster, stack, true);
+        }
+
         // TODO: post monitor difference?
 
         // Non-standalone jobs need another link for the requester, and both links need to be submitted to the cache.
         if (requester != null) {
             var linkReq = new CraftingLink(CraftingCpuHelper.generateLinkData(craftId, false, true), requester);
 
-            var craftingService = (CraftingService) grid.getCraftingService();
             craftingService.addLink(linkCpu);
             craftingService.addLink(linkReq);
 
@@ -305,7 +316,14 @@ private void finishJob(boolean success) {
 
         // TODO: log
 
-        // Clear waitingFor list and post all the relevant changes.
+        // Unregister from the grid's awaiting index, then clear waitingFor list and post all the relevant changes.
+        var grid = cluster.getGrid();
+        if (grid != null) {
+            var craftingService = (CraftingService) grid.getCraftingService();
+            for (var stack : job.waitingFor.list) {
+                craftingService.updateAwaitingCpu(cluster, stack, false);
+            }
+        }
         job.waitingFor.clear();
         // Notify opened menus of cancelled scheduled tasks.
         for (var entry : job.tasks.entrySet()) {
@@ -386,6 +404,9 @@ private void postCraftingDifference(IAEStack stack) {
             return;
 
         var craftingService = (CraftingService) grid.getCraftingService();
+        if (this.job != null) {
+            craftingService.updateAwaitingCpu(cluster, stack, getWaitingFor(stack) > 0);
+        }
         for (CraftingWatcher watcher : craftingService.getInterestManager().get(stack)) {
             watcher.getHost().onRequestChange(craftingService, stack);
         }
@@ -459,6 +480,16 @@ public long getWaitingFor(IAEStack template) {
         return stack == null ? 0 : stack.getStackSize();
     }
 
+    /**
+     * @return the stacks this CPU is still waiting for, used by the CraftingService to index awaiting CPUs.
+     */
+    public Iterable<IAEStack> getWaitingForList() {
+        if (this.job == null) {
+            return Collections.emptyList();
+        }
+        return Iterables.filter(this.job.waitingFor.list, stack -> stack.getStackSize() > 0);
+    }
+
     public long getPendingOutputs(IAEStack template) {
         long count = 0;
         if (this.job != null) {
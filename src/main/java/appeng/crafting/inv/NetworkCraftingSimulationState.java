@@ -18,45 +18,86 @@
 
 package appeng.crafting.inv;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nullable;
 
 import appeng.api.config.Actionable;
 import appeng.api.config.FuzzyMode;
 import appeng.api.networking.security.IActionSource;
+import appeng.api.storage.IMEMonitor;
 import appeng.api.storage.IStorageChannel;
 import appeng.api.storage.IStorageMonitorable;
 import appeng.api.storage.StorageChannels;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.MixedStackList;
 
+/**
+ * Root of the simulated inventories of a crafting calculation, backed by the network.
+ * <p>
+ * By default, the network is only queried for the stacks the calculation actually asks for, and every stack is only
+ * queried once since {@link CraftingSimulationState} caches the results. This must happen while the server thread is
+ * not touching the network. A snapshot of the network listing can be taken instead, for calculations that run
+ * alongside the server.
+ */
 public class NetworkCraftingSimulationState extends CraftingSimulationState {
-    private final MixedStackList list = new MixedStackList();
+    private final IStorageMonitorable monitorable;
+    private final IActionSource src;
+    @Nullable
+    private final MixedStackList snapshot;
 
-    public NetworkCraftingSimulationState(IStorageMonitorable monitorable, IActionSource src) {
-        for (var channel : StorageChannels.getAll()) {
-            collectChannelContents(channel, monitorable, src);
-        }
-    }
+    public NetworkCraftingSimulationState(IStorageMonitorable monitorable, IActionSource src, boolean takeSnapshot) {
+        this.monitorable = monitorable;
+        this.src = src;
 
-    private <T extends IAEStack> void collectChannelContents(IStorageChannel<T> channel,
-            IStorageMonitorable monitorable, IActionSource src) {
-        var monitor = monitorable.getInventory(channel);
-        for (var stack : monitor.getStorageList()) {
-            this.list.addStorage(monitor.extractItems(stack, Actionable.SIMULATE, src));
+        if (takeSnapshot) {
+            this.snapshot = new MixedStackList();
+            for (var channel : StorageChannels.getAll()) {
+                for (var stack : monitorable.getInventory(channel).getStorageList()) {
+                    this.snapshot.addStorage(stack);
+                }
+            }
+        } else {
+            this.snapshot = null;
         }
     }
 
     @Override
     protected IAEStack simulateExtractParent(IAEStack input) {
-        var precise = list.findPrecise(input);
-        if (precise == null)
-            return null;
-        else
-            return IAEStack.copy(input, Math.min(input.getStackSize(), precise.getStackSize()));
+        if (this.snapshot != null) {
+            var precise = this.snapshot.findPrecise(input);
+            if (precise == null)
+                return null;
+            else
+                return IAEStack.copy(input, Math.min(input.getStackSize(), precise.getStackSize()));
+        }
+
+        IMEMonitor monitor = this.monitorable.getInventory(input.getChannel());
+        return monitor.extractItems(IAEStack.copy(input), Actionable.SIMULATE, this.src);
     }
 
     @Override
     protected Collection<IAEStack> findFuzzyParent(IAEStack input) {
-        return list.findFuzzy(input, FuzzyMode.IGNORE_ALL);
+        if (this.snapshot != null) {
+            return this.snapshot.findFuzzy(input, FuzzyMode.IGNORE_ALL);
+        }
+
+        return this.findFuzzyInNetwork(input.getChannel(), input);
+    }
+
+    private <T extends IAEStack> Collection<IAEStack> findFuzzyInNetwork(IStorageChannel<T> channel,
+            IAEStack input) {
+        var listed = this.monitorable.getInventory(channel).getStorageList()
+                .findFuzzy(input.cast(channel), FuzzyMode.IGNORE_ALL);
+
+        // The listed amounts are not necessarily extractable, ask for everything and let the simulated extraction
+        // figure out the real amount.
+        List<IAEStack> candidates = new ArrayList<>(listed.size());
+        for (var stack : listed) {
+            candidates.add(IAEStack.copy(stack, Long.MAX_VALUE));
+        }
+        return candidates;
     }
 }
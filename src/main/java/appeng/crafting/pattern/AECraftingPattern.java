@@ -191,7 +191,8 @@ private Ingredient getShapelessRecipeIngredient(int slot) {
         return Ingredient.EMPTY;
     }
 
-    public boolean isValid(int slot, IAEItemStack stack, Level level) {
+    // Synchronized because the test frame and the cache are shared with crafting calculations running concurrently.
+    public synchronized boolean isValid(int slot, IAEItemStack stack, Level level) {
         if (!canSubstitute) {
             return Objects.equals(sparseInputs[slot], stack);
         }
@@ -37,6 +37,12 @@ public AECraftingPattern decode(ItemStack stack, Level level, boolean tryRecover
 
     @Override
     public AECraftingPattern decode(CompoundTag tag, Level level, boolean tryRecovery) {
+        return (AECraftingPattern) DecodedPatternCache.get(this, tag, level,
+                () -> decodeUncached(tag, level, tryRecovery));
+    }
+
+    @Nullable
+    private AECraftingPattern decodeUncached(CompoundTag tag, Level level, boolean tryRecovery) {
         // The recipe ids encoded in a pattern can go stale. This code attempts to find
         // the new id based on the stored inputs/outputs if that happens.
         var recipeId = AEPatternHelper.getRecipeId(tag);
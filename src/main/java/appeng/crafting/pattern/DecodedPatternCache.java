@@ -0,0 +1,81 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2021, TeamAppliedEnergistics, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.crafting.pattern;
+
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.Level;
+
+/**
+ * Server-wide cache of decoded patterns, keyed by the pattern item and its encoded NBT. Identical patterns in
+ * different providers and assemblers share a single decoded instance, including its substitution cache.
+ * <p/>
+ * Values are held weakly, so a pattern is only kept for as long as something on the server still uses it. Decoded
+ * crafting patterns depend on the recipes, so the cache is cleared whenever datapacks are reloaded.
+ */
+public final class DecodedPatternCache {
+    private static final Cache<Key, IAEPatternDetails> CACHE = CacheBuilder.newBuilder()
+            .weakValues()
+            .build();
+
+    private DecodedPatternCache() {
+    }
+
+    /**
+     * Returns the cached pattern for the given encoding, or decodes it using the given decoder and caches the result.
+     * Failed decodes are not cached. The client side always decodes, since its recipes are synced separately.
+     *
+     * @param definition The encoded pattern. It will be copied if it needs to be stored, so it can be mutated
+     *                   afterwards.
+     */
+    @Nullable
+    public static IAEPatternDetails get(Item item, CompoundTag definition, Level level,
+            Supplier<IAEPatternDetails> decoder) {
+        if (level == null || level.isClientSide()) {
+            return decoder.get();
+        }
+
+        var key = new Key(item, definition);
+        var details = CACHE.getIfPresent(key);
+        if (details == null) {
+            details = decoder.get();
+            if (details != null) {
+                CACHE.put(new Key(item, definition.copy()), details);
+            }
+        }
+        return details;
+    }
+
+    /**
+     * Drops all cached patterns, i.e. because the recipes they were decoded with are gone.
+     */
+    public static void invalidate() {
+        CACHE.invalidateAll();
+    }
+
+    private record Key(Item item, CompoundTag definition) {
+    }
+}
@@ -35,6 +35,11 @@ public AEProcessingPattern decode(ItemStack stack, Level level, boolean tryRecov
 
     @Override
     public AEProcessingPattern decode(CompoundTag tag, Level level, boolean tryRecovery) {
+        return (AEProcessingPattern) DecodedPatternCache.get(this, tag, level, () -> decodeUncached(tag));
+    }
+
+    @Nullable
+    private AEProcessingPattern decodeUncached(CompoundTag tag) {
         try {
             return new AEProcessingPattern(tag.copy());
         } catch (IllegalStateException e) {
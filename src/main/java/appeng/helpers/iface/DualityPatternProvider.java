@@ -22,6 +22,8 @@
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.IntConsumer;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -48,6 +50,7 @@
 
 import appeng.api.AEApi;
 import appeng.api.config.Actionable;
+import appeng.api.config.Setting;
 import appeng.api.config.Settings;
 import appeng.api.config.YesNo;
 import appeng.api.crafting.IPatternDetails;
@@ -73,6 +76,7 @@
 import appeng.crafting.execution.GenericStackHelper;
 import appeng.helpers.ICustomNameObject;
 import appeng.me.helpers.MachineSource;
+import appeng.me.service.InterfaceTerminalService;
 import appeng.util.ConfigManager;
 import appeng.util.inv.AppEngInternalInventory;
 import appeng.util.inv.InternalInventoryHost;
@@ -87,7 +91,7 @@ public class DualityPatternProvider implements InternalInventoryHost, ICraftingP
     private final IPatternProviderHost host;
     private final IManagedGridNode mainNode;
     private final IActionSource actionSource;
-    private final ConfigManager configManager = new ConfigManager();
+    private final ConfigManager configManager = new ConfigManager(this::onSettingChanged);
 
     // Pattern storing logic
     private final AppEngInternalInventory patternInventory = new AppEngInternalInventory(this, NUMBER_OF_PATTERN_SLOTS);
@@ -98,6 +102,8 @@ public class DualityPatternProvider implements InternalInventoryHost, ICraftingP
     private Direction sendDirection;
     // Stack returning logic
     private final PatternProviderReturnInventory returnInv;
+    // Interface terminal logic
+    private final Set<IntConsumer> patternSlotListeners = new HashSet<>();
 
     public DualityPatternProvider(IManagedGridNode mainNode, IPatternProviderHost host) {
         this.host = host;
@@ -165,6 +171,12 @@ public IConfigManager getConfigManager() {
         return this.configManager;
     }
 
+    private void onSettingChanged(IConfigManager manager, Setting<?> setting) {
+        if (setting == Settings.INTERFACE_TERMINAL) {
+            this.mainNode.ifPresent(grid -> InterfaceTerminalService.get(grid).markChanged());
+        }
+    }
+
     @Override
     public void saveChanges() {
         this.host.saveChanges();
@@ -173,6 +185,10 @@ public void saveChanges() {
     @Override
     public void onChangeInventory(InternalInventory inv, int slot, ItemStack removedStack, ItemStack newStack) {
         this.updatePatterns();
+
+        for (var listener : this.patternSlotListeners) {
+            listener.accept(slot);
+        }
     }
 
     @Override
@@ -340,11 +356,32 @@ public InternalInventory getPatternInv() {
 
     public void onMainNodeStateChanged() {
         this.mainNode.ifPresent((grid, node) -> {
+            InterfaceTerminalService.get(grid).markChanged();
             grid.postEvent(new GridCraftingPatternChange(this, node));
             grid.getTickManager().alertDevice(node);
         });
     }
 
+    /**
+     * Register a listener that will receive the slot index whenever a pattern slot changes. This is only used by the
+     * interface terminal. Make sure to remove it by calling {@link #removePatternSlotListener}.
+     */
+    public void addPatternSlotListener(IntConsumer listener) {
+        this.patternSlotListeners.add(listener);
+    }
+
+    public void removePatternSlotListener(IntConsumer listener) {
+        this.patternSlotListeners.remove(listener);
+    }
+
+    /**
+     * @return True if interface terminals on the given grid should currently show this pattern provider.
+     */
+    public boolean isVisibleInTerminal(@Nullable IGrid grid) {
+        return grid != null && this.mainNode.isActive() && this.mainNode.getGrid() == grid
+                && this.configManager.getSetting(Settings.INTERFACE_TERMINAL) == YesNo.YES;
+    }
+
     public void addDrops(List<ItemStack> drops) {
         for (var stack : this.patternInventory) {
             drops.add(stack);
@@ -28,6 +28,7 @@
 import appeng.api.networking.ticking.ITickManager;
 import appeng.me.service.CraftingService;
 import appeng.me.service.EnergyService;
+import appeng.me.service.InterfaceTerminalService;
 import appeng.me.service.P2PService;
 import appeng.me.service.PathServiceService;
 import appeng.me.service.SecurityService;
@@ -50,5 +51,6 @@ public static void init() {
         GridServices.register(ISecurityService.class, SecurityService.class);
         GridServices.register(ICraftingService.class, CraftingService.class);
         GridServices.register(StatisticsService.class, StatisticsService.class);
+        GridServices.register(InterfaceTerminalService.class, InterfaceTerminalService.class);
     }
 }
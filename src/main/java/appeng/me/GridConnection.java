@@ -18,6 +18,8 @@
 
 package appeng.me;
 
+import java.util.List;
+
 import javax.annotation.Nullable;
 
 import com.google.common.collect.ImmutableList;
@@ -91,8 +93,14 @@ public void destroy() {
         this.sideA.removeConnection(this);
         this.sideB.removeConnection(this);
 
-        this.sideA.validateGrid();
-        this.sideB.validateGrid();
+        // only the part that was cut off moves to a new grid.
+        final List<GridNode> cutOff = GridSplitDetector.findSmallerPart(this.sideA, this.sideB);
+        if (!cutOff.isEmpty()) {
+            final Grid grid = Grid.create(cutOff.get(0));
+            for (final GridNode node : cutOff) {
+                node.setGrid(grid);
+            }
+        }
     }
 
     @Override
@@ -159,15 +159,6 @@ boolean hasConnection(final IGridNode otherSide) {
         return false;
     }
 
-    void validateGrid() {
-        final GridSplitDetector gsd = new GridSplitDetector(this.getInternalGrid().getPivot());
-        this.beginVisit(gsd);
-        if (!gsd.isPivotFound()) {
-            final IGridVisitor gp = new GridPropagator(Grid.create(this));
-            this.beginVisit(gp);
-        }
-    }
-
     public Grid getInternalGrid() {
         if (this.myGrid == null) {
             this.myGrid = Grid.create(this);
@@ -18,32 +18,82 @@
 
 package appeng.me;
 
-import appeng.api.networking.IGridNode;
-import appeng.api.networking.IGridVisitor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
-class GridSplitDetector implements IGridVisitor {
+import appeng.api.networking.IGridConnection;
 
-    private final IGridNode pivot;
-    private boolean pivotFound;
+/**
+ * Finds out whether removing a connection split its grid by searching outward from both of its former ends at the same
+ * pace. The searches stop as soon as they meet or one of them runs out of nodes, so the work done is bounded by the
+ * smaller part of the grid instead of the whole grid.
+ */
+final class GridSplitDetector {
+
+    private final Set<GridNode> visited = new HashSet<>();
+    private final List<GridNode> found = new ArrayList<>();
+    private final Deque<GridNode> queue = new ArrayDeque<>();
 
-    public GridSplitDetector(final IGridNode pivot) {
-        this.pivot = pivot;
+    private GridSplitDetector(final GridNode start) {
+        this.visited.add(start);
+        this.found.add(start);
+        this.queue.add(start);
     }
 
-    @Override
-    public boolean visitNode(final IGridNode n) {
-        if (n == this.pivot) {
-            this.setPivotFound(true);
+    /**
+     * @return the nodes of the smaller part if the two nodes are no longer connected, or an empty list if they are.
+     */
+    static List<GridNode> findSmallerPart(final GridNode a, final GridNode b) {
+        if (a == b) {
+            return Collections.emptyList();
         }
 
-        return !this.isPivotFound();
-    }
+        final GridSplitDetector searchA = new GridSplitDetector(a);
+        final GridSplitDetector searchB = new GridSplitDetector(b);
 
-    public boolean isPivotFound() {
-        return this.pivotFound;
+        while (true) {
+            if (searchA.step(searchB)) {
+                return Collections.emptyList();
+            }
+            if (searchA.queue.isEmpty()) {
+                return searchA.found;
+            }
+
+            if (searchB.step(searchA)) {
+                return Collections.emptyList();
+            }
+            if (searchB.queue.isEmpty()) {
+                return searchB.found;
+            }
+        }
     }
 
-    private void setPivotFound(final boolean pivotFound) {
-        this.pivotFound = pivotFound;
+    /**
+     * Expands the next node of this search.
+     *
+     * @return true if the search reached a node the other search already visited.
+     */
+    private boolean step(final GridSplitDetector other) {
+        final GridNode node = this.queue.poll();
+
+        for (final IGridConnection gc : node.getConnections()) {
+            final GridNode next = (GridNode) gc.getOtherSide(node);
+
+            if (other.visited.contains(next)) {
+                return true;
+            }
+
+            if (this.visited.add(next)) {
+                this.found.add(next);
+                this.queue.add(next);
+            }
+        }
+
+        return false;
     }
 }
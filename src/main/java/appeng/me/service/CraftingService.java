@@ -26,9 +26,7 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -38,13 +36,13 @@
 import javax.annotation.Nullable;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.SortedMultiset;
-import com.google.common.collect.TreeMultiset;
+import com.google.common.collect.Multiset;
 
 import net.minecraft.world.level.Level;
 
@@ -77,6 +75,7 @@
 import appeng.api.storage.data.MixedStackList;
 import appeng.blockentity.crafting.CraftingBlockEntity;
 import appeng.blockentity.crafting.CraftingStorageBlockEntity;
+import appeng.core.AEConfig;
 import appeng.crafting.CraftingCalculation;
 import appeng.crafting.CraftingLink;
 import appeng.crafting.CraftingLinkNexus;
@@ -86,8 +85,7 @@
 import appeng.me.helpers.GenericInterestManager;
 import appeng.me.service.helpers.CraftingServiceStorage;
 
-public class CraftingService
-        implements ICraftingService, IGridServiceProvider, ICraftingProviderHelper {
+public class CraftingService implements ICraftingService, IGridServiceProvider {
 
     private static final ExecutorService CRAFTING_POOL;
 
@@ -102,7 +100,7 @@
 
         AEApi.grid().addGridServiceEventHandler(GridCraftingPatternChange.class, ICraftingService.class,
                 (service, event) -> {
-                    ((CraftingService) service).updatePatterns();
+                    ((CraftingService) service).updateProvider(event.provider);
                 });
         AEApi.grid().addGridServiceEventHandler(GridCraftingCpuChange.class, ICraftingService.class,
                 (service, event) -> {
@@ -111,15 +109,25 @@
     }
 
     private final Set<CraftingCPUCluster> craftingCPUClusters = new HashSet<>();
-    private final Set<ICraftingProvider> craftingProviders = new HashSet<>();
+    private final Map<ICraftingProvider, ProviderRegistration> craftingProviders = new HashMap<>();
     private final Map<IGridNode, ICraftingWatcher> craftingWatchers = new HashMap<>();
     private final IGrid grid;
-    private final Map<IPatternDetails, SortedMultiset<CraftingMedium>> craftingMethods = new HashMap<>();
+    private final Map<IPatternDetails, List<CraftingMedium>> craftingMethods = new HashMap<>();
+    private final Map<IAEStack, Set<IPatternDetails>> patternsByOutput = new HashMap<>();
     private final Map<IAEStack, ImmutableList<IPatternDetails>> craftableItems = new HashMap<>();
     private final MixedStackList craftableItemsList = new MixedStackList();
-    private final Set<IAEStack> emitableItems = new HashSet<>();
+    /**
+     * Set when a craftable item was removed, the fuzzy list can't remove entries and is rebuilt on the next lookup.
+     */
+    private boolean craftableItemsListStale = false;
+    private final Multiset<IAEStack> emitableItems = HashMultiset.create();
     private final Map<String, CraftingLinkNexus> craftingLinks = new HashMap<>();
     private final Multimap<IAEStack, CraftingWatcher> interests = HashMultimap.create();
+    /**
+     * Index of the CPUs that are currently waiting for some stack, so that storage inserts do not have to poll every
+     * CPU of the grid.
+     */
+    private final Multimap<IAEStack, CraftingCPUCluster> awaitingCpus = HashMultimap.create();
     private final GenericInterestManager<CraftingWatcher> interestManager = new GenericInterestManager<>(
             (Multimap) this.interests);
     private final IStorageService storageGrid;
@@ -167,8 +175,7 @@ public void removeNode(final IGridNode gridNode) {
 
         var provider = gridNode.getService(ICraftingProvider.class);
         if (provider != null) {
-            this.craftingProviders.remove(provider);
-            this.updatePatterns();
+            this.updatePatterns(provider, this.craftingProviders.remove(provider), null);
         }
 
         if (gridNode.getOwner() instanceof CraftingBlockEntity) {
@@ -197,8 +204,8 @@ public void addNode(IGridNode gridNode) {
 
         var craftingProvider = gridNode.getService(ICraftingProvider.class);
         if (craftingProvider != null) {
-            this.craftingProviders.add(craftingProvider);
-            this.updatePatterns();
+            this.updatePatterns(craftingProvider, this.craftingProviders.get(craftingProvider),
+                    new ProviderRegistration());
         }
 
         if (gridNode.getOwner() instanceof CraftingBlockEntity) {
@@ -206,47 +213,121 @@ public void addNode(IGridNode gridNode) {
         }
     }
 
-    private void updatePatterns() {
-        var oldItems = new ArrayList<>(this.craftableItems.keySet());
+    /**
+     * Re-registers the patterns of a provider that posted a {@link GridCraftingPatternChange}.
+     */
+    private void updateProvider(ICraftingProvider provider) {
+        var oldRegistration = this.craftingProviders.get(provider);
+        if (oldRegistration != null) {
+            this.updatePatterns(provider, oldRegistration, new ProviderRegistration());
+        }
+    }
 
-        // erase list.
-        this.craftingMethods.clear();
-        this.craftableItems.clear();
-        this.craftableItemsList.resetStatus();
-        this.emitableItems.clear();
+    /**
+     * Replaces the patterns and emitable items a single provider contributes. Only the outputs of the old and new
+     * registrations are touched, and only the items whose craftable state actually changed are posted to the
+     * terminals.
+     *
+     * @param oldRegistration the previous registration of the provider, if any.
+     * @param newRegistration a fresh registration to fill from the provider, or null if the provider is leaving.
+     */
+    private void updatePatterns(ICraftingProvider provider, @Nullable ProviderRegistration oldRegistration,
+            @Nullable ProviderRegistration newRegistration) {
+        // Craftable state of the affected items before the update.
+        final Map<IAEStack, Boolean> wasCraftable = new HashMap<>();
+        // Outputs whose pattern list needs to be sorted again.
+        final Set<IAEStack> dirtyOutputs = new HashSet<>();
+
+        if (oldRegistration != null) {
+            for (var option : oldRegistration.patterns) {
+                var output = getCraftableKey(option.details());
+                wasCraftable.computeIfAbsent(output, this::isCraftable);
+
+                var mediums = this.craftingMethods.get(option.details());
+                if (mediums != null && mediums.remove(option.medium())) {
+                    if (mediums.isEmpty()) {
+                        this.craftingMethods.remove(option.details());
+                        var patterns = this.patternsByOutput.get(output);
+                        patterns.remove(option.details());
+                        if (patterns.isEmpty()) {
+                            this.patternsByOutput.remove(output);
+                        }
+                    }
+                    dirtyOutputs.add(output);
+                }
+            }
+            for (var emitable : oldRegistration.emitables) {
+                wasCraftable.computeIfAbsent(emitable, this::isCraftable);
+                this.emitableItems.remove(emitable);
+            }
+        }
 
-        // Send an update for the items that had patterns previously.
-        // This tells the terminals to update items marked as "craftable".
-        postAlterationOfCraftableItems(oldItems);
+        if (newRegistration != null) {
+            this.craftingProviders.put(provider, newRegistration);
+            provider.provideCrafting(newRegistration);
+
+            for (var option : newRegistration.patterns) {
+                var output = getCraftableKey(option.details());
+                wasCraftable.computeIfAbsent(output, this::isCraftable);
+
+                var mediums = this.craftingMethods.computeIfAbsent(option.details(), d -> new ArrayList<>());
+                // Keep the mediums sorted by descending priority, in insertion order for equal priorities.
+                int index = 0;
+                while (index < mediums.size() && mediums.get(index).priority() >= option.medium().priority()) {
+                    index++;
+                }
+                mediums.add(index, option.medium());
 
-        // re-create list..
-        for (final ICraftingProvider provider : this.craftingProviders) {
-            provider.provideCrafting(this);
+                this.patternsByOutput.computeIfAbsent(output, k -> new HashSet<>()).add(option.details());
+                dirtyOutputs.add(output);
+            }
+            for (var emitable : newRegistration.emitables) {
+                wasCraftable.computeIfAbsent(emitable, this::isCraftable);
+                this.emitableItems.add(emitable);
+            }
         }
 
-        final Map<IAEStack, Set<IPatternDetails>> tmpCraft = new HashMap<>();
         // Sort by highest priority (that of the highest priority crafting medium).
         Comparator<IPatternDetails> detailsComparator = Comparator
-                .comparing(details -> -this.craftingMethods.get(details).firstEntry().getElement().priority);
-        // new craftables!
-        for (final IPatternDetails details : this.craftingMethods.keySet()) {
-            var primaryOutput = details.getPrimaryOutput();
-            primaryOutput = IAEStack.copy(primaryOutput);
-            primaryOutput.reset();
-            primaryOutput.setCraftable(true);
-
-            tmpCraft.computeIfAbsent(primaryOutput, k -> new TreeSet<>(detailsComparator)).add(details);
+                .comparing(details -> -this.craftingMethods.get(details).get(0).priority());
+        for (var output : dirtyOutputs) {
+            var patterns = this.patternsByOutput.get(output);
+            if (patterns == null) {
+                if (this.craftableItems.remove(output) != null) {
+                    this.craftableItemsListStale = true;
+                }
+            } else {
+                var sorted = new ArrayList<>(patterns);
+                sorted.sort(detailsComparator);
+                if (this.craftableItems.put(output, ImmutableList.copyOf(sorted)) == null
+                        && !this.craftableItemsListStale) {
+                    this.craftableItemsList.add(output);
+                }
+            }
         }
 
-        // make them immutable
-        for (final Entry<IAEStack, Set<IPatternDetails>> e : tmpCraft.entrySet()) {
-            var output = e.getKey();
-            this.craftableItems.put(output, ImmutableList.copyOf(e.getValue()));
-            this.craftableItemsList.add(output);
+        // Send an update for the items whose craftable state changed.
+        // This tells the terminals to update items marked as "craftable".
+        var changed = new ArrayList<IAEStack>();
+        for (var entry : wasCraftable.entrySet()) {
+            if (entry.getValue() != isCraftable(entry.getKey())) {
+                changed.add(entry.getKey());
+            }
         }
+        if (!changed.isEmpty()) {
+            postAlterationOfCraftableItems(changed);
+        }
+    }
+
+    private static IAEStack getCraftableKey(IPatternDetails details) {
+        var primaryOutput = IAEStack.copy(details.getPrimaryOutput());
+        primaryOutput.reset();
+        primaryOutput.setCraftable(true);
+        return primaryOutput;
+    }
 
-        // Post new craftable items to the opened terminals.
-        postAlterationOfCraftableItems(craftableItems.keySet());
+    private boolean isCraftable(IAEStack what) {
+        return this.craftableItems.containsKey(what) || this.emitableItems.contains(what);
     }
 
     private void postAlterationOfCraftableItems(Collection<IAEStack> patterns) {
@@ -266,11 +347,14 @@ private <T extends IAEStack> void postChannelAlteration(Collection<IAEStack> pat
 
     private void updateCPUClusters() {
         this.craftingCPUClusters.clear();
+        this.awaitingCpus.clear();
 
         for (var blockEntity : this.grid.getMachines(CraftingStorageBlockEntity.class)) {
             final CraftingCPUCluster cluster = blockEntity.getCluster();
-            if (cluster != null) {
-                this.craftingCPUClusters.add(cluster);
+            if (cluster != null && this.craftingCPUClusters.add(cluster)) {
+                for (var stack : cluster.craftingLogic.getWaitingForList()) {
+                    this.awaitingCpus.put(IAEStack.copy(stack, 1), cluster);
+                }
 
                 ICraftingLink maybeLink = cluster.craftingLogic.getLastLink();
                 if (maybeLink != null) {
@@ -294,25 +378,38 @@ public void addLink(final CraftingLink link) {
         link.setNexus(nexus);
     }
 
-    @Override
-    public void addCraftingOption(final ICraftingMedium medium, final IPatternDetails api, int priority) {
-        this.craftingMethods.computeIfAbsent(api, pattern -> TreeMultiset.create())
-                .add(new CraftingMedium(medium, priority));
-    }
-
-    @Override
-    public void setEmitable(final IAEStack someItem) {
-        this.emitableItems.add(IAEStack.copy(someItem));
-    }
-
     public IAEStack injectItemsIntoCpus(IAEStack input, final Actionable type) {
-        for (final CraftingCPUCluster cpu : this.craftingCPUClusters) {
+        var cpus = this.awaitingCpus.get(input);
+        if (cpus.isEmpty()) {
+            return input;
+        }
+
+        // Injecting can complete the awaited stack and unregister the CPU, so iterate over a copy.
+        for (final CraftingCPUCluster cpu : cpus.toArray(new CraftingCPUCluster[0])) {
             input = cpu.craftingLogic.injectItems(input, type);
+            if (input == null) {
+                break;
+            }
         }
 
         return input;
     }
 
+    /**
+     * Called by a CPU of this grid whenever the amount it is waiting for of a given stack changes.
+     *
+     * @param awaiting true if the CPU is still waiting for some of the stack.
+     */
+    public void updateAwaitingCpu(final CraftingCPUCluster cpu, final IAEStack what, final boolean awaiting) {
+        if (awaiting) {
+            if (this.craftingCPUClusters.contains(cpu)) {
+                this.awaitingCpus.put(IAEStack.copy(what, 1), cpu);
+            }
+        } else {
+            this.awaitingCpus.remove(what, cpu);
+        }
+    }
+
     public <T extends IAEStack> IAEStackList<T> addCrafting(IStorageChannel<T> channel, final IAEStackList<T> out) {
         // add craftable items!
         for (var stack : this.craftableItems.keySet()) {
@@ -321,7 +418,7 @@ public <T extends IAEStack> IAEStackList<T> addCrafting(IStorageChannel<T> chann
             }
         }
 
-        for (var stack : this.emitableItems) {
+        for (var stack : this.emitableItems.elementSet()) {
             if (stack.getChannel() == channel) {
                 out.addCrafting(stack.cast(channel));
             }
@@ -338,6 +435,14 @@ public ImmutableCollection<IPatternDetails> getCraftingFor(final IAEStack whatTo
     @Nullable
     @Override
     public IAEStack getFuzzyCraftable(IAEStack whatToCraft, Predicate<IAEStack> filter) {
+        if (this.craftableItemsListStale) {
+            this.craftableItemsListStale = false;
+            this.craftableItemsList.resetStatus();
+            for (var output : this.craftableItems.keySet()) {
+                this.craftableItemsList.add(output);
+            }
+        }
+
         for (var fuzzy : craftableItemsList.findFuzzy(whatToCraft, FuzzyMode.IGNORE_ALL)) {
             if (filter.test(fuzzy)) {
                 return IAEStack.copy(fuzzy, whatToCraft.getStackSize());
@@ -352,7 +457,8 @@ public Future<ICraftingPlan> beginCraftingJob(Level level, IActionSource actionS
             throw new IllegalArgumentException("Invalid Crafting Job Request");
         }
 
-        final CraftingCalculation job = new CraftingCalculation(level, grid, actionSrc, slotItem);
+        final CraftingCalculation job = new CraftingCalculation(level, grid, actionSrc, slotItem,
+                AEConfig.instance().isCraftingCalculationConcurrent());
 
         return CRAFTING_POOL.submit(job::run);
     }
@@ -424,14 +530,14 @@ public boolean canEmitFor(final IAEStack someItem) {
 
     @Override
     public boolean isRequesting(final IAEStack what) {
-        return this.requesting(what) > 0;
+        return this.awaitingCpus.containsKey(what) && this.requesting(what) > 0;
     }
 
     @Override
     public long requesting(IAEStack what) {
         long requested = 0;
 
-        for (final CraftingCPUCluster cluster : this.craftingCPUClusters) {
+        for (final CraftingCPUCluster cluster : this.awaitingCpus.get(what)) {
             requested += cluster.craftingLogic.getWaitingFor(what);
         }
 
@@ -456,12 +562,31 @@ public GenericInterestManager<CraftingWatcher> getInterestManager() {
         return this.interestManager;
     }
 
-    private record CraftingMedium(ICraftingMedium medium, int priority) implements Comparable<CraftingMedium> {
+    private record CraftingMedium(ICraftingMedium medium, int priority) {
+    }
+
+    private record PatternOption(IPatternDetails details, CraftingMedium medium) {
+    }
+
+    /**
+     * Records what a single provider contributes to the grid, so that it can be unregistered without asking every
+     * other provider to provide its patterns again.
+     */
+    private static class ProviderRegistration implements ICraftingProviderHelper {
+        private final List<PatternOption> patterns = new ArrayList<>();
+        private final List<IAEStack> emitables = new ArrayList<>();
+
+        @Override
+        public void addCraftingOption(final ICraftingMedium medium, final IPatternDetails api, int priority) {
+            this.patterns.add(new PatternOption(api, new CraftingMedium(medium, priority)));
+        }
 
         @Override
-        public int compareTo(CraftingMedium o) {
-            // Higher priority goes first.
-            return o.priority - this.priority;
+        public void setEmitable(final IAEStack someItem) {
+            var emitable = IAEStack.copy(someItem);
+            emitable.reset();
+            emitable.setCraftable(true);
+            this.emitables.add(emitable);
         }
     }
 }
@@ -18,13 +18,16 @@
 
 package appeng.me.service;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.NavigableSet;
-import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
 import java.util.SortedSet;
@@ -115,6 +118,20 @@ public class EnergyService implements IEnergyService, IEnergyGridProvider, IGrid
     private boolean ongoingInjectOperation = false;
 
     private final Multiset<IEnergyGridProvider> energyGridProviders = HashMultiset.create();
+
+    /**
+     * Bumped whenever the energy grid providers of this grid change. A quartz fiber adds a node to both grids it
+     * bridges, so both of them are bumped when it is placed or removed.
+     */
+    private long providerTopologyVersion = 0;
+    // Providers reachable from this grid (excluding itself), computed once per provider topology.
+    private IEnergyGridProvider[] linkedProviders = new IEnergyGridProvider[0];
+    // The grids that were traversed to find the linked providers, and their topology version at that time.
+    private EnergyService[] linkedServices = new EnergyService[0];
+    private long[] linkedServiceVersions = new long[0];
+    private long linkedProvidersVersion = -1;
+    // Set while linkedProviders is being iterated, re-entrant calls sort a copy instead.
+    private boolean traversingLinkedProviders = false;
     private final IGrid myGrid;
     private final HashMap<IGridNode, IEnergyWatcher> watchers = new HashMap<>();
 
@@ -243,26 +260,93 @@ public void onServerEndTick() {
     @Override
     public double extractAEPower(final double amt, final Actionable mode, final PowerMultiplier pm) {
         final double toExtract = pm.multiply(amt);
-        final Queue<IEnergyGridProvider> toVisit = new PriorityQueue<>(COMPARATOR_HIGHEST_AMOUNT_STORED_FIRST);
-        final Set<IEnergyGridProvider> visited = new HashSet<>();
 
-        double extracted = 0;
-        toVisit.add(this);
+        double extracted = this.extractProviderPower(toExtract, mode);
+
+        // Fast path for grids that are not linked to other energy grids.
+        if (extracted < toExtract && !this.energyGridProviders.isEmpty()) {
+            final boolean wasTraversing = this.traversingLinkedProviders;
+            this.traversingLinkedProviders = true;
+            try {
+                for (var provider : this.getLinkedProviders(COMPARATOR_HIGHEST_AMOUNT_STORED_FIRST)) {
+                    extracted += provider.extractProviderPower(toExtract - extracted, mode);
+                    if (extracted >= toExtract) {
+                        break;
+                    }
+                }
+            } finally {
+                this.traversingLinkedProviders = wasTraversing;
+            }
+        }
+
+        return pm.divide(extracted);
+    }
+
+    /**
+     * Returns the energy grid providers reachable from this grid, excluding this grid itself, sorted by the given
+     * order. The reachable set is only recomputed when the provider topology changes.
+     */
+    private IEnergyGridProvider[] getLinkedProviders(final Comparator<IEnergyGridProvider> order) {
+        if (!this.isLinkedProvidersValid()) {
+            this.findLinkedProviders();
+        }
+
+        IEnergyGridProvider[] result = this.linkedProviders;
+        if (this.traversingLinkedProviders) {
+            // Don't reorder the array an outer call is still iterating.
+            result = result.clone();
+        }
+        Arrays.sort(result, order);
+        return result;
+    }
+
+    /**
+     * The linked providers stay valid as long as neither this grid nor any grid reached through it changed its
+     * providers. A grid that becomes reachable is linked through a provider that was added to one of those grids.
+     */
+    private boolean isLinkedProvidersValid() {
+        if (this.linkedProvidersVersion != this.providerTopologyVersion) {
+            return false;
+        }
 
-        while (!toVisit.isEmpty() && extracted < toExtract) {
-            final IEnergyGridProvider next = toVisit.poll();
-            visited.add(next);
+        for (int i = 0; i < this.linkedServices.length; i++) {
+            if (this.linkedServices[i].providerTopologyVersion != this.linkedServiceVersions[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
 
-            extracted += next.extractProviderPower(toExtract - extracted, mode);
+    private void findLinkedProviders() {
+        final Set<IEnergyGridProvider> visited = new LinkedHashSet<>();
+        final Queue<IEnergyGridProvider> toVisit = new ArrayDeque<>();
+        visited.add(this);
+        toVisit.add(this);
 
-            for (IEnergyGridProvider iEnergyGridProvider : next.providers()) {
-                if (!visited.contains(iEnergyGridProvider)) {
-                    toVisit.add(iEnergyGridProvider);
+        while (!toVisit.isEmpty()) {
+            for (IEnergyGridProvider provider : toVisit.poll().providers()) {
+                if (visited.add(provider)) {
+                    toVisit.add(provider);
                 }
             }
         }
 
-        return pm.divide(extracted);
+        visited.remove(this);
+        this.linkedProviders = visited.toArray(new IEnergyGridProvider[0]);
+        this.linkedProvidersVersion = this.providerTopologyVersion;
+
+        final List<EnergyService> services = new ArrayList<>();
+        for (IEnergyGridProvider provider : this.linkedProviders) {
+            if (provider instanceof EnergyService service) {
+                services.add(service);
+            }
+        }
+        this.linkedServices = services.toArray(new EnergyService[0]);
+        this.linkedServiceVersions = new long[this.linkedServices.length];
+        for (int i = 0; i < this.linkedServices.length; i++) {
+            this.linkedServiceVersions[i] = this.linkedServices[i].providerTopologyVersion;
+        }
     }
 
     @Override
@@ -398,22 +482,21 @@ public boolean isNetworkPowered() {
 
     @Override
     public double injectPower(final double amt, final Actionable mode) {
-        final Queue<IEnergyGridProvider> toVisit = new PriorityQueue<>(COMPARATOR_LOWEST_PERCENTAGE_FIRST);
-        final Set<IEnergyGridProvider> visited = new HashSet<>();
-        toVisit.add(this);
-
-        double leftover = amt;
-
-        while (!toVisit.isEmpty() && leftover > 0) {
-            final IEnergyGridProvider next = toVisit.poll();
-            visited.add(next);
-
-            leftover = next.injectProviderPower(leftover, mode);
-
-            for (IEnergyGridProvider iEnergyGridProvider : next.providers()) {
-                if (!visited.contains(iEnergyGridProvider)) {
-                    toVisit.add(iEnergyGridProvider);
+        double leftover = this.injectProviderPower(amt, mode);
+
+        // Fast path for grids that are not linked to other energy grids.
+        if (leftover > 0 && !this.energyGridProviders.isEmpty()) {
+            final boolean wasTraversing = this.traversingLinkedProviders;
+            this.traversingLinkedProviders = true;
+            try {
+                for (var provider : this.getLinkedProviders(COMPARATOR_LOWEST_PERCENTAGE_FIRST)) {
+                    leftover = provider.injectProviderPower(leftover, mode);
+                    if (leftover <= 0) {
+                        break;
+                    }
                 }
+            } finally {
+                this.traversingLinkedProviders = wasTraversing;
             }
         }
 
@@ -436,22 +519,21 @@ public double getMaxStoredPower() {
 
     @Override
     public double getEnergyDemand(final double maxRequired) {
-        final Queue<IEnergyGridProvider> toVisit = new PriorityQueue<>(COMPARATOR_LOWEST_PERCENTAGE_FIRST);
-        final Set<IEnergyGridProvider> visited = new HashSet<>();
-        toVisit.add(this);
-
-        double required = 0;
-
-        while (!toVisit.isEmpty() && required < maxRequired) {
-            final IEnergyGridProvider next = toVisit.poll();
-            visited.add(next);
-
-            required += next.getProviderEnergyDemand(maxRequired - required);
-
-            for (IEnergyGridProvider iEnergyGridProvider : next.providers()) {
-                if (!visited.contains(iEnergyGridProvider)) {
-                    toVisit.add(iEnergyGridProvider);
+        double required = this.getProviderEnergyDemand(maxRequired);
+
+        // Fast path for grids that are not linked to other energy grids.
+        if (required < maxRequired && !this.energyGridProviders.isEmpty()) {
+            final boolean wasTraversing = this.traversingLinkedProviders;
+            this.traversingLinkedProviders = true;
+            try {
+                for (var provider : this.getLinkedProviders(COMPARATOR_LOWEST_PERCENTAGE_FIRST)) {
+                    required += provider.getProviderEnergyDemand(maxRequired - required);
+                    if (required >= maxRequired) {
+                        break;
+                    }
                 }
+            } finally {
+                this.traversingLinkedProviders = wasTraversing;
             }
         }
 
@@ -473,6 +555,7 @@ public void removeNode(final IGridNode node) {
         var gridProvider = node.getService(IEnergyGridProvider.class);
         if (gridProvider != null) {
             this.energyGridProviders.remove(gridProvider);
+            this.providerTopologyVersion++;
         }
 
         // idle draw.
@@ -528,6 +611,7 @@ public void addNode(final IGridNode node) {
         var gridProvider = node.getService(IEnergyGridProvider.class);
         if (gridProvider != null) {
             this.energyGridProviders.add(gridProvider);
+            this.providerTopologyVersion++;
         }
 
         // idle draw...
@@ -0,0 +1,68 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2021, TeamAppliedEnergistics, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.service;
+
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.IGridService;
+import appeng.api.networking.IGridServiceProvider;
+import appeng.helpers.iface.IPatternProviderHost;
+
+/**
+ * Tells open interface terminals when the pattern providers they show might have changed, so that they only have to
+ * look for providers on their grid when something actually happened on it.
+ */
+public class InterfaceTerminalService implements IGridService, IGridServiceProvider {
+
+    private long generation = 0;
+
+    public static InterfaceTerminalService get(IGrid grid) {
+        return grid.getService(InterfaceTerminalService.class);
+    }
+
+    @Override
+    public void removeNode(final IGridNode node) {
+        if (node.getOwner() instanceof IPatternProviderHost) {
+            this.generation++;
+        }
+    }
+
+    @Override
+    public void addNode(final IGridNode node) {
+        if (node.getOwner() instanceof IPatternProviderHost) {
+            this.generation++;
+        }
+    }
+
+    /**
+     * Called when a pattern provider on this grid might have appeared in or disappeared from interface terminals
+     * without joining or leaving the grid, i.e. because its state or terminal setting changed.
+     */
+    public void markChanged() {
+        this.generation++;
+    }
+
+    /**
+     * @return A number that changes whenever the pattern providers shown by interface terminals on this grid might
+     *         have changed.
+     */
+    public long getGeneration() {
+        return this.generation;
+    }
+}
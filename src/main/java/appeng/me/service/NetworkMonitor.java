@@ -18,12 +18,15 @@
 
 package appeng.me.service;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.OptionalLong;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
@@ -31,21 +34,34 @@
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Queues;
 
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+
+import net.minecraft.world.item.Item;
+
 import appeng.api.config.Actionable;
+import appeng.api.config.FuzzyMode;
 import appeng.api.networking.events.GridStorageEvent;
 import appeng.api.networking.security.IActionSource;
 import appeng.api.storage.IMEInventoryHandler;
 import appeng.api.storage.IMEMonitor;
 import appeng.api.storage.IMEMonitorHandlerReceiver;
 import appeng.api.storage.IStorageChannel;
+import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IAEStackList;
+import appeng.me.helpers.BaseActionSource;
 import appeng.me.storage.ItemWatcher;
 
 public class NetworkMonitor<T extends IAEStack> implements IMEMonitor<T> {
     @Nonnull
     private static final Deque<NetworkMonitor<?>> GLOBAL_DEPTH = Queues.newArrayDeque();
 
+    /**
+     * The storage list is kept current by applying the posted changes to it. Every so often it is rebuilt from scratch
+     * to correct any drift caused by changes that were never posted to this monitor.
+     */
+    private static final int CONSISTENCY_CHECK_INTERVAL = 20 * 60;
+
     @Nonnull
     private final StorageService service;
     @Nonnull
@@ -54,9 +70,25 @@
     private final IAEStackList<T> cachedList;
     @Nonnull
     private final Map<IMEMonitorHandlerReceiver<T>, Object> listeners;
+    /**
+     * Stacks whose posted change does not reflect the change in storage (i.e. because a crafting CPU intercepted
+     * them). Their amount in the cached list is looked up again from the network.
+     */
+    @Nonnull
+    private final List<T> staleStacks = new ArrayList<>();
+    /**
+     * Running totals over the cached list, so level emitters can read them without summing up the list. They are
+     * adjusted with every change applied to the cached list and recomputed whenever it is rebuilt.
+     */
+    private long totalAmount = 0;
+    @Nonnull
+    private final Reference2LongOpenHashMap<Item> amountByItem = new Reference2LongOpenHashMap<>();
 
     private boolean sendEvent = false;
-    private boolean hasChanged = false;
+    private boolean hasChanged = true;
+    private boolean changedSinceCheck = false;
+    @Nonnegative
+    private int ticksSinceCheck = 0;
     @Nonnegative
     private int localDepthSemaphore = 0;
 
@@ -104,19 +136,55 @@ public IStorageChannel<T> getChannel() {
     public IAEStackList<T> getStorageList() {
         if (this.hasChanged) {
             this.hasChanged = false;
+            this.changedSinceCheck = false;
+            this.staleStacks.clear();
             this.cachedList.resetStatus();
-            return this.getAvailableItems(this.cachedList);
+            this.getAvailableItems(this.cachedList);
+            this.recomputeTotals();
+            return this.cachedList;
+        }
+
+        if (!this.staleStacks.isEmpty()) {
+            this.refreshStaleStacks();
         }
 
         return this.cachedList;
     }
 
+    /**
+     * @return The total amount of all stacks stored in the network.
+     */
+    public long getTotalAmount() {
+        this.getStorageList();
+        return this.totalAmount;
+    }
+
+    /**
+     * Returns the amount that a fuzzy search for the template would sum up to, if it can be answered from the running
+     * totals. That is the case when the search matches all variants of an item, i.e. when ignoring all damage or for
+     * items without durability.
+     */
+    public OptionalLong getFuzzyAmount(final T template, final FuzzyMode fuzzyMode) {
+        if (template instanceof IAEItemStack itemStack
+                && (fuzzyMode == FuzzyMode.IGNORE_ALL || !itemStack.getItem().canBeDepleted())) {
+            this.getStorageList();
+            return OptionalLong.of(this.amountByItem.getLong(itemStack.getItem()));
+        }
+        return OptionalLong.empty();
+    }
+
     @Override
     public T injectItems(final T input, final Actionable mode, final IActionSource src) {
         if (mode == Actionable.SIMULATE) {
             return this.getHandler().injectItems(input, mode, src);
         }
 
+        // Items handed to a crafting CPU are not stored, even though they are reported as injected
+        if (this.localDepthSemaphore == 0 && !this.hasChanged
+                && this.service.getGrid().getCraftingService().isRequesting(input)) {
+            this.staleStacks.add(IAEStack.copy(input, 0));
+        }
+
         this.localDepthSemaphore++;
         final T leftover = this.getHandler().injectItems(input, mode, src);
         this.localDepthSemaphore--;
@@ -157,7 +225,6 @@ private void monitorDifference(final T original, final T leftOvers, final boolea
     }
 
     private void notifyListenersOfChange(final Iterable<T> diff, final IActionSource src) {
-        this.hasChanged = true;
         final Iterator<Entry<IMEMonitorHandlerReceiver<T>, Object>> i = this.getListeners();
 
         while (i.hasNext()) {
@@ -185,6 +252,18 @@ protected void postChange(final boolean add, final Iterable<T> changes, final IA
 
         this.sendEvent = true;
 
+        if (!this.hasChanged) {
+            for (final T changedItem : changes) {
+                if (changedItem != null) {
+                    this.applyChange(changedItem, add ? changedItem.getStackSize() : -changedItem.getStackSize());
+                }
+            }
+
+            if (!this.staleStacks.isEmpty()) {
+                this.refreshStaleStacks();
+            }
+        }
+
         this.notifyListenersOfChange(changes, src);
 
         for (final T changedItem : changes) {
@@ -226,6 +305,69 @@ protected void postChange(final boolean add, final Iterable<T> changes, final IA
         }
     }
 
+    private void applyChange(final T changedItem, final long delta) {
+        if (delta == 0) {
+            // Changes without an amount only alter the craftable status, which can't be applied as a delta
+            this.hasChanged = true;
+            return;
+        }
+
+        this.changedSinceCheck = true;
+
+        final T stored = this.cachedList.findPrecise(changedItem);
+        if (stored != null) {
+            stored.incStackSize(delta);
+            this.adjustTotals(stored, delta);
+            if (stored.getStackSize() < 0) {
+                this.hasChanged = true;
+            }
+        } else if (delta > 0) {
+            final T added = IAEStack.copy(changedItem);
+            added.reset();
+            added.setStackSize(delta);
+            this.cachedList.add(added);
+            this.adjustTotals(added, delta);
+        } else {
+            this.hasChanged = true;
+        }
+    }
+
+    private void refreshStaleStacks() {
+        final IActionSource src = new BaseActionSource();
+
+        for (final T stale : this.staleStacks) {
+            final T available = this.getHandler().extractItems(IAEStack.copy(stale, Long.MAX_VALUE),
+                    Actionable.SIMULATE, src);
+            final long amount = IAEStack.getStackSizeOrZero(available);
+
+            final T stored = this.cachedList.findPrecise(stale);
+            if (stored != null) {
+                this.adjustTotals(stored, amount - stored.getStackSize());
+                stored.setStackSize(amount);
+            } else if (amount > 0) {
+                this.cachedList.add(IAEStack.copy(stale, amount));
+                this.adjustTotals(stale, amount);
+            }
+        }
+
+        this.staleStacks.clear();
+    }
+
+    private void adjustTotals(final T stack, final long delta) {
+        this.totalAmount += delta;
+        if (stack instanceof IAEItemStack itemStack) {
+            this.amountByItem.addTo(itemStack.getItem(), delta);
+        }
+    }
+
+    private void recomputeTotals() {
+        this.totalAmount = 0;
+        this.amountByItem.clear();
+        for (final T stack : this.cachedList) {
+            this.adjustTotals(stack, stack.getStackSize());
+        }
+    }
+
     void forceUpdate() {
         this.hasChanged = true;
 
@@ -243,6 +385,13 @@ void forceUpdate() {
     }
 
     void onTick() {
+        if (++this.ticksSinceCheck >= CONSISTENCY_CHECK_INTERVAL) {
+            this.ticksSinceCheck = 0;
+            if (this.changedSinceCheck) {
+                this.hasChanged = true;
+            }
+        }
+
         if (this.sendEvent) {
             this.sendEvent = false;
             this.service.getGrid().postEvent(new GridStorageEvent(this, this.myChannel));
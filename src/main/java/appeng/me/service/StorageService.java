@@ -22,6 +22,7 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -68,11 +69,22 @@ public class StorageService implements IStorageService, IGridServiceProvider {
     private final HashMap<IGridNode, IStackWatcher> watchers = new HashMap<>();
     private Map<IStorageChannel<? extends IAEStack>, NetworkInventoryHandler<?>> storageNetworks;
     private Map<IStorageChannel<? extends IAEStack>, NetworkMonitor<?>> storageMonitors;
+    /**
+     * The cell handlers each active provider contributed to the network storage of a channel, used to only remount
+     * the providers whose cell array actually changed.
+     */
+    private final Map<IStorageChannel<?>, Map<ICellProvider, MountedCellArray>> mountedCells;
+    /**
+     * Set by {@link GridCellArrayUpdate}. All updates posted within a tick are processed together, either at the end
+     * of the tick or right before the network storage is accessed again.
+     */
+    private boolean cellArrayDirty = false;
 
     public StorageService(final IGrid g) {
         this.myGrid = g;
         this.storageNetworks = new IdentityHashMap<>();
         this.storageMonitors = new IdentityHashMap<>();
+        this.mountedCells = new IdentityHashMap<>();
 
         StorageChannels.getAll()
                 .forEach(channel -> this.storageMonitors.put(channel, new NetworkMonitor<>(this, channel)));
@@ -80,6 +92,10 @@ public StorageService(final IGrid g) {
 
     @Override
     public void onServerEndTick() {
+        if (this.cellArrayDirty) {
+            this.updateCellArrays();
+        }
+
         this.storageMonitors.forEach((channel, monitor) -> monitor.onTick());
     }
 
@@ -127,6 +143,10 @@ public void addNode(final IGridNode node) {
     }
 
     public <T extends IAEStack> IMEInventoryHandler<T> getInventoryHandler(IStorageChannel<T> channel) {
+        if (this.cellArrayDirty) {
+            this.updateCellArrays();
+        }
+
         return (IMEInventoryHandler<T>) this.storageNetworks.computeIfAbsent(channel, this::buildNetworkStorage);
     }
 
@@ -135,7 +155,7 @@ public <T extends IAEStack> IMEMonitor<T> getInventory(IStorageChannel<T> channe
         return (IMEMonitor<T>) this.storageMonitors.get(channel);
     }
 
-    private CellChangeTracker addCellProvider(final ICellProvider cc, final CellChangeTracker tracker) {
+    private boolean addCellProvider(final ICellProvider cc, final CellChangeTracker tracker) {
         if (this.inactiveCellProviders.contains(cc)) {
             this.inactiveCellProviders.remove(cc);
             this.activeCellProviders.add(cc);
@@ -148,12 +168,14 @@ private CellChangeTracker addCellProvider(final ICellProvider cc, final CellChan
                     tracker.postChanges(channel, 1, h, actionSrc);
                 }
             });
+
+            return true;
         }
 
-        return tracker;
+        return false;
     }
 
-    private CellChangeTracker removeCellProvider(final ICellProvider cc, final CellChangeTracker tracker) {
+    private boolean removeCellProvider(final ICellProvider cc, final CellChangeTracker tracker) {
         if (this.activeCellProviders.contains(cc)) {
             this.activeCellProviders.remove(cc);
             this.inactiveCellProviders.add(cc);
@@ -166,19 +188,26 @@ private CellChangeTracker removeCellProvider(final ICellProvider cc, final CellC
                     tracker.postChanges(channel, -1, h, actionSrc);
                 }
             });
+
+            return true;
         }
 
-        return tracker;
+        return false;
     }
 
     public void cellUpdate() {
-        this.storageNetworks.clear();
+        this.cellArrayDirty = true;
+    }
+
+    private void updateCellArrays() {
+        this.cellArrayDirty = false;
 
         final List<ICellProvider> ll = new ArrayList<ICellProvider>();
         ll.addAll(this.inactiveCellProviders);
         ll.addAll(this.activeCellProviders);
 
         final CellChangeTracker tracker = new CellChangeTracker();
+        boolean changed = false;
 
         for (final ICellProvider cc : ll) {
             boolean active = true;
@@ -193,17 +222,71 @@ public void cellUpdate() {
             }
 
             if (active) {
-                this.addCellProvider(cc, tracker);
+                changed |= this.addCellProvider(cc, tracker);
             } else {
-                this.removeCellProvider(cc, tracker);
+                changed |= this.removeCellProvider(cc, tracker);
             }
         }
 
-        this.storageMonitors.forEach((channel, monitor) -> monitor.forceUpdate());
+        for (var entry : this.storageNetworks.entrySet()) {
+            changed |= this.remountCells((IStorageChannel) entry.getKey(), (NetworkInventoryHandler) entry.getValue());
+        }
+
+        if (changed) {
+            this.storageMonitors.forEach((channel, monitor) -> monitor.forceUpdate());
+        }
 
         tracker.applyChanges();
     }
 
+    /**
+     * Brings the network storage of a channel up to date with the cell arrays of the active providers. Only providers
+     * whose cell array differs from what was mounted before are touched.
+     *
+     * @return true if any handler was added or removed.
+     */
+    private <T extends IAEStack> boolean remountCells(final IStorageChannel<T> chan,
+            final NetworkInventoryHandler<T> storageNetwork) {
+        final Map<ICellProvider, MountedCellArray> mounted = this.mountedCells.get(chan);
+        final List<IMEInventoryHandler<T>> removed = new ArrayList<>();
+        final List<IMEInventoryHandler<T>> added = new ArrayList<>();
+
+        final Iterator<Map.Entry<ICellProvider, MountedCellArray>> it = mounted.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<ICellProvider, MountedCellArray> entry = it.next();
+            if (!this.activeCellProviders.contains(entry.getKey())) {
+                for (final IMEInventoryHandler<?> h : entry.getValue().handlers()) {
+                    removed.add((IMEInventoryHandler<T>) h);
+                }
+                it.remove();
+            }
+        }
+
+        for (final ICellProvider cc : this.activeCellProviders) {
+            final List<IMEInventoryHandler<T>> current = cc.getCellArray(chan);
+            final MountedCellArray previous = mounted.get(cc);
+
+            if (previous != null && previous.matches(current)) {
+                continue;
+            }
+
+            if (previous != null) {
+                for (final IMEInventoryHandler<?> h : previous.handlers()) {
+                    removed.add((IMEInventoryHandler<T>) h);
+                }
+            }
+            added.addAll(current);
+            mounted.put(cc, MountedCellArray.of(current));
+        }
+
+        if (removed.isEmpty() && added.isEmpty()) {
+            return false;
+        }
+
+        storageNetwork.updateStorage(removed, added);
+        return true;
+    }
+
     private <T extends IAEStack, C extends IStorageChannel<T>> void postChangesToNetwork(final C chan,
             final int upOrDown, final IAEStackList<T> availableItems, final IActionSource src) {
         this.storageMonitors.get(chan).postChange(upOrDown > 0, (Iterable) availableItems, src);
@@ -214,13 +297,18 @@ private <T extends IAEStack, C extends IStorageChannel<T>> NetworkInventoryHandl
         var security = (SecurityService) this.getGrid().getService(ISecurityService.class);
 
         final NetworkInventoryHandler<T> storageNetwork = new NetworkInventoryHandler<T>(chan, security);
+        final Map<ICellProvider, MountedCellArray> mounted = new IdentityHashMap<>();
 
         for (final ICellProvider cc : this.activeCellProviders) {
-            for (final IMEInventoryHandler<T> h : cc.getCellArray(chan)) {
+            final List<IMEInventoryHandler<T>> cellArray = cc.getCellArray(chan);
+            for (final IMEInventoryHandler<T> h : cellArray) {
                 storageNetwork.addNewStorage(h);
             }
+            mounted.put(cc, MountedCellArray.of(cellArray));
         }
 
+        this.mountedCells.put(chan, mounted);
+
         return storageNetwork;
     }
 
@@ -228,18 +316,30 @@ private <T extends IAEStack, C extends IStorageChannel<T>> NetworkInventoryHandl
     public <T extends IAEStack> void postAlterationOfStoredItems(IStorageChannel<T> chan,
             Iterable<T> input,
             final IActionSource src) {
+        var storageNetwork = (NetworkInventoryHandler<T>) this.storageNetworks.get(chan);
+        if (storageNetwork != null) {
+            storageNetwork.onStackChanges(input);
+        }
+
         this.storageMonitors.get(chan).postChange(true, (Iterable) input, src);
     }
 
     @Override
     public void registerAdditionalCellProvider(final ICellProvider provider) {
         this.inactiveCellProviders.add(provider);
-        this.addCellProvider(provider, new CellChangeTracker()).applyChanges();
+
+        final CellChangeTracker tracker = new CellChangeTracker();
+        this.addCellProvider(provider, tracker);
+        this.cellArrayDirty = true;
+        tracker.applyChanges();
     }
 
     @Override
     public void unregisterAdditionalCellProvider(final ICellProvider provider) {
-        this.removeCellProvider(provider, new CellChangeTracker()).applyChanges();
+        final CellChangeTracker tracker = new CellChangeTracker();
+        this.removeCellProvider(provider, tracker);
+        this.cellArrayDirty = true;
+        tracker.applyChanges();
         this.inactiveCellProviders.remove(provider);
     }
 
@@ -272,6 +372,36 @@ public void applyChanges() {
         }
     }
 
+    /**
+     * The handlers a provider contributed to the network storage, along with the priority each was mounted at. The
+     * network storage sorts handlers by priority when they are added, so a handler whose priority changed in place has
+     * to be mounted again.
+     */
+    private record MountedCellArray(List<IMEInventoryHandler<?>> handlers, int[] priorities) {
+        static MountedCellArray of(final List<? extends IMEInventoryHandler<?>> cellArray) {
+            final int[] priorities = new int[cellArray.size()];
+            for (int i = 0; i < priorities.length; i++) {
+                priorities[i] = cellArray.get(i).getPriority();
+            }
+            return new MountedCellArray(new ArrayList<>(cellArray), priorities);
+        }
+
+        boolean matches(final List<? extends IMEInventoryHandler<?>> current) {
+            if (this.handlers.size() != current.size()) {
+                return false;
+            }
+
+            for (int i = 0; i < this.handlers.size(); i++) {
+                final IMEInventoryHandler<?> h = current.get(i);
+                if (this.handlers.get(i) != h || this.priorities[i] != h.getPriority()) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
     private class CellChangeTracker<T extends IAEStack> {
 
         final List<CellChangeTrackerRecord<T>> data = new ArrayList<>();
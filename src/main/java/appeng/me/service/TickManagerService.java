@@ -21,14 +21,12 @@
 import java.util.HashMap;
 import java.util.LongSummaryStatistics;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
-import com.google.common.collect.Iterators;
 
 import net.minecraft.CrashReport;
 import net.minecraft.CrashReportCategory;
@@ -43,6 +41,7 @@
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.me.GridNode;
 import appeng.me.service.helpers.TickTracker;
+import appeng.me.service.helpers.TickWheel;
 
 public class TickManagerService implements ITickManager, IGridServiceProvider {
 
@@ -54,9 +53,9 @@ public class TickManagerService implements ITickManager, IGridServiceProvider {
     private final Map<IGridNode, TickTracker> alertable = new HashMap<>();
     private final Map<IGridNode, TickTracker> sleeping = new HashMap<>();
     private final Map<IGridNode, TickTracker> awake = new HashMap<>();
-    private final Map<Level, PriorityQueue<TickTracker>> upcomingTicks = new HashMap<>();
+    private final Map<Level, TickWheel> upcomingTicks = new HashMap<>();
 
-    private PriorityQueue<TickTracker> currentlyTickingQueue = null;
+    private TickWheel currentlyTickingQueue = null;
 
     private long currentTick = 0;
     private Stopwatch stopWatch = Stopwatch.createUnstarted();
@@ -90,7 +89,7 @@ private void tickLevelQueue(@Nullable Level level) {
             currentlyTickingQueue = queue;
 
             try {
-                tickQueue(queue);
+                queue.tick(this.currentTick, this::tickTracker);
             } finally {
                 currentlyTickingQueue = null;
             }
@@ -101,39 +100,22 @@ private void tickLevelQueue(@Nullable Level level) {
         }
     }
 
-    private void tickQueue(PriorityQueue<TickTracker> queue) {
-        TickTracker tt;
-
-        while (!queue.isEmpty()) {
-            // Peek and stop once it reaches a TickTracker running at a later tick
-            tt = queue.peek();
-            if (tt.getNextTick() > this.currentTick) {
-                break;
-            }
-
-            queue.poll();
-            final int diff = (int) (this.currentTick - tt.getLastTick());
-            final TickRateModulation mod = this.unsafeTickingRequest(tt, diff);
-
-            switch (mod) {
-                case URGENT -> tt.setCurrentRate(0);
-                case FASTER -> tt.setCurrentRate(tt.getCurrentRate() - TICK_RATE_SPEED_UP_FACTOR);
-                case IDLE -> tt.setCurrentRate(tt.getRequest().maxTickRate);
-                case SLOWER -> tt.setCurrentRate(tt.getCurrentRate() + TICK_RATE_SLOW_DOWN_FACTOR);
-                case SLEEP -> this.sleepDevice(tt.getNode());
-                default -> {
-                    return;
-                }
-            }
-
-            // Update the last time this node was ticked
-            tt.setLastTick(this.currentTick);
-
-            if (this.awake.containsKey(tt.getNode())) {
-                // Queue already known, no need to use addToQueue() to resolve it again.
-                queue.add(tt);
+    private void tickTracker(TickTracker tt) {
+        final int diff = (int) (this.currentTick - tt.getLastTick());
+        final TickRateModulation mod = this.unsafeTickingRequest(tt, diff);
+
+        switch (mod) {
+            case URGENT -> tt.setCurrentRate(0);
+            case FASTER -> tt.setCurrentRate(tt.getCurrentRate() - TICK_RATE_SPEED_UP_FACTOR);
+            case IDLE -> tt.setCurrentRate(tt.getRequest().maxTickRate);
+            case SLOWER -> tt.setCurrentRate(tt.getCurrentRate() + TICK_RATE_SLOW_DOWN_FACTOR);
+            case SLEEP -> this.sleepDevice(tt.getNode());
+            case SAME -> {
             }
         }
+
+        // Update the last time this node was ticked, the wheel schedules it again unless it went to sleep.
+        tt.setLastTick(this.currentTick);
     }
 
     @Override
@@ -145,7 +127,9 @@ public void removeNode(final IGridNode gridNode) {
 
             // Also remove the tracker from the queue to not tick it again.
             var tt = this.awake.remove(gridNode);
-            this.removeFromQueue(gridNode, tt);
+            if (tt != null) {
+                this.removeFromQueue(gridNode, tt);
+            }
         }
     }
 
@@ -203,6 +187,7 @@ public boolean sleepDevice(final IGridNode node) {
             final TickTracker gt = this.awake.get(node);
             this.awake.remove(node);
             this.sleeping.put(node, gt);
+            this.removeFromQueue(node, gt);
             return true;
         }
 
@@ -287,19 +272,23 @@ private LongSummaryStatistics getStatistics(final IGridNode node) {
     /**
      * null as level could be used for virtual nodes.
      */
-    private PriorityQueue<TickTracker> getQueue(@Nullable Level level) {
-        return this.upcomingTicks.computeIfAbsent(level, (key) -> new PriorityQueue<>());
+    private TickWheel getQueue(@Nullable Level level) {
+        return this.upcomingTicks.computeIfAbsent(level, (key) -> new TickWheel(this.currentTick));
     }
 
     private void addToQueue(IGridNode node, TickTracker tt) {
         var queue = getQueue(node.getLevel());
-        queue.add(tt);
+        queue.schedule(tt);
     }
 
     private void removeFromQueue(IGridNode node, TickTracker tt) {
         var level = node.getLevel();
-        var queue = getQueue(level);
-        queue.remove(tt);
+        var queue = this.upcomingTicks.get(level);
+        if (queue == null) {
+            return;
+        }
+
+        queue.cancel(tt);
 
         // Make sure we don't cleanup a queue we are iterating over,
         // as something might be added to it later even if it's empty now.
@@ -309,7 +298,6 @@ private void removeFromQueue(IGridNode node, TickTracker tt) {
     }
 
     private void updateQueuePosition(IGridNode node, TickTracker tt) {
-        this.removeFromQueue(node, tt);
         this.addToQueue(node, tt);
     }
 
@@ -353,11 +341,7 @@ public NodeStatus getStatus(IGridNode node) {
 
         // Also check if the node is _really_ queued for ticking. If it's awake
         // and not queued, this indicates a bug.
-        boolean isQueued = false;
-        var tickQueue = upcomingTicks.get(node.getLevel());
-        if (awakeTracker != null && tickQueue != null) {
-            isQueued = Iterators.contains(tickQueue.iterator(), awakeTracker);
-        }
+        boolean isQueued = awakeTracker != null && awakeTracker.isScheduled();
 
         // Get the tick-request stats
         var tracker = awakeTracker;
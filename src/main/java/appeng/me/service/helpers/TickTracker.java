@@ -20,8 +20,6 @@
 
 import java.util.LongSummaryStatistics;
 
-import javax.annotation.Nonnull;
-
 import net.minecraft.CrashReportCategory;
 
 import appeng.api.networking.IGridNode;
@@ -29,7 +27,7 @@
 import appeng.api.networking.ticking.TickingRequest;
 import appeng.api.parts.IPart;
 
-public class TickTracker implements Comparable<TickTracker> {
+public class TickTracker {
 
     private final TickingRequest request;
     private final IGridTickable gt;
@@ -39,6 +37,12 @@ public class TickTracker implements Comparable<TickTracker> {
     private long lastTick;
     private int currentRate;
 
+    // position in the tick wheel, maintained by TickWheel.
+    TickWheel.Bucket bucket;
+    TickTracker prev;
+    TickTracker next;
+    long dueTick;
+
     public TickTracker(final TickingRequest req, final IGridNode node, final IGridTickable gt, final long currentTick) {
         this.request = req;
         this.gt = gt;
@@ -48,24 +52,6 @@ public TickTracker(final TickingRequest req, final IGridNode node, final IGridTi
         this.statistics = new LongSummaryStatistics();
     }
 
-    @Override
-    public int compareTo(@Nonnull final TickTracker t) {
-        int next = Long.compare(this.getNextTick(), t.getNextTick());
-
-        if (next != 0) {
-            return next;
-        }
-
-        int last = Long.compare(this.getLastTick(), t.getLastTick());
-
-        if (last != 0) {
-            return last;
-        }
-
-        return Integer.compare(this.getCurrentRate(), t.getCurrentRate());
-
-    }
-
     public void addEntityCrashInfo(final CrashReportCategory crashreportcategory) {
         if (this.getGridTickable() instanceof IPart part) {
             part.addEntityCrashInfo(crashreportcategory);
@@ -114,4 +100,11 @@ public TickingRequest getRequest() {
     public LongSummaryStatistics getStatistics() {
         return statistics;
     }
+
+    /**
+     * @return true if this tracker is waiting in a {@link TickWheel} for its next tick.
+     */
+    public boolean isScheduled() {
+        return this.bucket != null;
+    }
 }
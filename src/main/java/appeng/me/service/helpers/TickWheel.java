@@ -0,0 +1,191 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.service.helpers;
+
+import javax.annotation.Nullable;
+
+/**
+ * A hashed timing wheel of {@link TickTracker}s. Trackers are kept in the bucket of the tick they are due, so
+ * scheduling and cancelling take constant time and every tick only looks at the trackers of its own bucket. Trackers
+ * that are due in a later revolution of the wheel stay in their bucket until then.
+ */
+public class TickWheel {
+
+    /**
+     * Must be a power of two.
+     */
+    private static final int SLOTS = 256;
+
+    private final Bucket[] buckets = new Bucket[SLOTS];
+    private final Bucket deferred = new Bucket();
+
+    /**
+     * The tick of the bucket that is being, or was last, processed.
+     */
+    private long currentTick;
+    private boolean processing = false;
+    @Nullable
+    private TickTracker ticking = null;
+    private int size = 0;
+
+    public TickWheel(final long currentTick) {
+        for (int i = 0; i < SLOTS; i++) {
+            this.buckets[i] = new Bucket();
+        }
+
+        this.currentTick = currentTick - 1;
+    }
+
+    /**
+     * Schedules the tracker for its next tick, or moves it there if it already was scheduled. Trackers that are
+     * already overdue tick as soon as possible.
+     */
+    public void schedule(final TickTracker tt) {
+        this.unlink(tt);
+
+        tt.dueTick = Math.max(tt.getNextTick(), this.processing ? this.currentTick : this.currentTick + 1);
+        this.buckets[(int) (tt.dueTick & SLOTS - 1)].add(tt);
+        this.size++;
+    }
+
+    /**
+     * Removes the tracker from the wheel. If it is being ticked right now, it will not be scheduled again afterwards.
+     */
+    public void cancel(final TickTracker tt) {
+        this.unlink(tt);
+
+        if (this.ticking == tt) {
+            this.ticking = null;
+        }
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0 && this.ticking == null;
+    }
+
+    /**
+     * Ticks every tracker that is due up to and including the given tick, in the order they became due. Ticked
+     * trackers are scheduled again for their next tick unless they were cancelled while being ticked.
+     */
+    public void tick(final long tick, final Ticker ticker) {
+        // a full revolution visits every bucket, so there is no need to go back further than that.
+        final long from = Math.max(this.currentTick + 1, tick - SLOTS + 1);
+
+        this.processing = true;
+        try {
+            for (long t = from; t <= tick; t++) {
+                this.currentTick = t;
+                this.tickBucket(this.buckets[(int) (t & SLOTS - 1)], ticker);
+            }
+        } finally {
+            this.processing = false;
+        }
+    }
+
+    private void tickBucket(final Bucket bucket, final Ticker ticker) {
+        try {
+            TickTracker tt;
+            while ((tt = bucket.poll()) != null) {
+                if (tt.dueTick > this.currentTick) {
+                    // due in a later revolution.
+                    this.deferred.add(tt);
+                    continue;
+                }
+
+                this.size--;
+                this.ticking = tt;
+                ticker.tick(tt);
+
+                if (this.ticking == tt && tt.bucket == null) {
+                    this.schedule(tt);
+                }
+                this.ticking = null;
+            }
+        } finally {
+            bucket.addAll(this.deferred);
+        }
+    }
+
+    private void unlink(final TickTracker tt) {
+        if (tt.bucket != null) {
+            tt.bucket.remove(tt);
+            this.size--;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Ticker {
+        void tick(TickTracker tt);
+    }
+
+    /**
+     * An intrusive doubly linked list of trackers.
+     */
+    static class Bucket {
+        private TickTracker head;
+        private TickTracker tail;
+
+        void add(final TickTracker tt) {
+            tt.bucket = this;
+            tt.prev = this.tail;
+            tt.next = null;
+
+            if (this.tail == null) {
+                this.head = tt;
+            } else {
+                this.tail.next = tt;
+            }
+            this.tail = tt;
+        }
+
+        void remove(final TickTracker tt) {
+            if (tt.prev == null) {
+                this.head = tt.next;
+            } else {
+                tt.prev.next = tt.next;
+            }
+
+            if (tt.next == null) {
+                this.tail = tt.prev;
+            } else {
+                tt.next.prev = tt.prev;
+            }
+
+            tt.bucket = null;
+            tt.prev = null;
+            tt.next = null;
+        }
+
+        @Nullable
+        TickTracker poll() {
+            final TickTracker tt = this.head;
+            if (tt != null) {
+                this.remove(tt);
+            }
+            return tt;
+        }
+
+        void addAll(final Bucket other) {
+            TickTracker tt;
+            while ((tt = other.poll()) != null) {
+                this.add(tt);
+            }
+        }
+    }
+}
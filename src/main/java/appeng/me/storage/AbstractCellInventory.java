@@ -18,9 +18,15 @@
 
 package appeng.me.storage;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.ItemStack;
 
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
 import appeng.api.config.FuzzyMode;
 import appeng.api.implementations.items.IStorageCell;
 import appeng.api.inventories.InternalInventory;
@@ -49,6 +55,16 @@
     private short storedItems;
     private long storedItemCount;
     protected IAEStackList<T> cellItems;
+    /**
+     * The stored stacks by the NBT slot they are persisted in. Slots are kept dense, removing a type moves the last
+     * slot into the freed one.
+     */
+    private final List<T> slots = new ArrayList<>();
+    private final Reference2IntMap<T> slotIndex = new Reference2IntOpenHashMap<>();
+    /**
+     * Bit mask of the slots that have to be written by the next {@link #persist()}.
+     */
+    private long dirtySlots;
     private final ItemStack i;
     protected final IStorageCell<T> cellType;
     protected final int itemsPerByte;
@@ -79,6 +95,7 @@ protected AbstractCellInventory(final IStorageCell<T> cellType, final ItemStack
         this.storedItems = this.tagCompound.getShort(ITEM_TYPE_TAG);
         this.storedItemCount = this.tagCompound.getLong(ITEM_COUNT_TAG);
         this.cellItems = null;
+        this.slotIndex.defaultReturnValue(-1);
     }
 
     protected IAEStackList<T> getCellItems() {
@@ -96,54 +113,42 @@ public void persist() {
             return;
         }
 
-        long itemCount = 0;
-
-        // add new pretty stuff...
-        int x = 0;
-        for (final T v : this.cellItems) {
-            itemCount += v.getStackSize();
-
-            final CompoundTag g = new CompoundTag();
-            v.writeToNBT(g);
-            this.tagCompound.put(ITEM_SLOT_KEYS[x], g);
-            this.tagCompound.putLong(ITEM_SLOT_COUNT_KEYS[x], v.getStackSize());
-
-            x++;
+        // only rewrite the slots that changed since the last save
+        for (int x = 0; x < MAX_ITEM_TYPES && this.dirtySlots != 0; x++) {
+            final long bit = 1L << x;
+            if ((this.dirtySlots & bit) == 0) {
+                continue;
+            }
+            this.dirtySlots &= ~bit;
+
+            if (x < this.slots.size()) {
+                final T v = this.slots.get(x);
+                final CompoundTag g = new CompoundTag();
+                v.writeToNBT(g);
+                this.tagCompound.put(ITEM_SLOT_KEYS[x], g);
+                this.tagCompound.putLong(ITEM_SLOT_COUNT_KEYS[x], v.getStackSize());
+            } else {
+                this.tagCompound.remove(ITEM_SLOT_KEYS[x]);
+                this.tagCompound.remove(ITEM_SLOT_COUNT_KEYS[x]);
+            }
         }
 
-        final short oldStoredItems = this.storedItems;
-
-        this.storedItems = (short) this.cellItems.size();
-        if (this.cellItems.isEmpty()) {
+        if (this.storedItems == 0) {
             this.tagCompound.remove(ITEM_TYPE_TAG);
         } else {
             this.tagCompound.putShort(ITEM_TYPE_TAG, this.storedItems);
         }
 
-        this.storedItemCount = itemCount;
-        if (itemCount == 0) {
+        if (this.storedItemCount == 0) {
             this.tagCompound.remove(ITEM_COUNT_TAG);
         } else {
-            this.tagCompound.putLong(ITEM_COUNT_TAG, itemCount);
-        }
-
-        // clean any old crusty stuff...
-        for (; x < oldStoredItems && x < this.maxItemTypes; x++) {
-            this.tagCompound.remove(ITEM_SLOT_KEYS[x]);
-            this.tagCompound.remove(ITEM_SLOT_COUNT_KEYS[x]);
+            this.tagCompound.putLong(ITEM_COUNT_TAG, this.storedItemCount);
         }
 
         this.isPersisted = true;
     }
 
     protected void saveChanges() {
-        // recalculate values
-        this.storedItems = (short) this.cellItems.size();
-        this.storedItemCount = 0;
-        for (final T v : this.cellItems) {
-            this.storedItemCount += v.getStackSize();
-        }
-
         this.isPersisted = false;
         if (this.container != null) {
             this.container.saveChanges(this);
@@ -153,23 +158,121 @@ protected void saveChanges() {
         }
     }
 
+    /**
+     * Adds a type that is not currently stored in this cell.
+     */
+    protected void addCellItem(final T input) {
+        this.cellItems.add(input);
+
+        final T stored = this.cellItems.findPrecise(input);
+        if (this.slotIndex.containsKey(stored)) {
+            // the type was still listed with an amount of zero
+            this.storedItemCount += input.getStackSize();
+            this.markDirty(this.slotIndex.getInt(stored));
+        } else {
+            this.assignSlot(stored);
+            this.storedItemCount += stored.getStackSize();
+        }
+
+        this.saveChanges();
+    }
+
+    /**
+     * Changes the amount of a stored type, which is removed from the cell once it runs out.
+     */
+    protected void changeCellItemAmount(final T stored, final long delta) {
+        if (delta == 0) {
+            return;
+        }
+
+        stored.incStackSize(delta);
+        this.storedItemCount += delta;
+
+        final int slot = this.slotIndex.getInt(stored);
+        if (slot < 0) {
+            this.assignSlot(stored);
+        } else if (stored.getStackSize() <= 0) {
+            this.freeSlot(slot);
+        } else {
+            this.markDirty(slot);
+        }
+
+        this.saveChanges();
+    }
+
+    private void assignSlot(final T stored) {
+        final int slot = this.slots.size();
+        this.slots.add(stored);
+        this.slotIndex.put(stored, slot);
+        this.storedItems = (short) this.slots.size();
+        this.markDirty(slot);
+    }
+
+    private void freeSlot(final int slot) {
+        final T removed = this.slots.get(slot);
+        this.slotIndex.removeInt(removed);
+
+        // compact by moving the last slot into the freed one
+        final int last = this.slots.size() - 1;
+        final T moved = this.slots.remove(last);
+        if (slot != last) {
+            this.slots.set(slot, moved);
+            this.slotIndex.put(moved, slot);
+        }
+
+        this.storedItems = (short) this.slots.size();
+        this.markDirty(slot);
+        this.markDirty(last);
+    }
+
+    private void markDirty(final int slot) {
+        this.dirtySlots |= 1L << slot;
+    }
+
     private void loadCellItems() {
         if (this.cellItems == null) {
             this.cellItems = this.getChannel().createList();
         }
 
         this.cellItems.resetStatus(); // clears totals and stuff.
+        this.slots.clear();
+        this.slotIndex.clear();
 
         final int types = (int) this.getStoredItemTypes();
         boolean needsUpdate = false;
+        long itemCount = 0;
 
         for (int slot = 0; slot < types; slot++) {
             CompoundTag compoundTag = this.tagCompound.getCompound(ITEM_SLOT_KEYS[slot]);
             long stackSize = this.tagCompound.getLong(ITEM_SLOT_COUNT_KEYS[slot]);
-            needsUpdate |= !this.loadCellItem(compoundTag, stackSize);
+            final T t = this.loadCellItem(compoundTag, stackSize);
+
+            if (t == null || t.getStackSize() <= 0) {
+                needsUpdate = true;
+                continue;
+            }
+
+            this.cellItems.add(t);
+            itemCount += t.getStackSize();
+
+            final T stored = this.cellItems.findPrecise(t);
+            if (this.slotIndex.containsKey(stored)) {
+                // the same type was saved twice and has been merged
+                needsUpdate = true;
+            } else {
+                this.slots.add(stored);
+                this.slotIndex.put(stored, this.slots.size() - 1);
+            }
         }
 
+        this.storedItems = (short) this.slots.size();
+        this.storedItemCount = itemCount;
+
         if (needsUpdate) {
+            // slots were dropped or merged, so everything after the first loaded slot may have shifted
+            for (int slot = 0; slot < types && slot < MAX_ITEM_TYPES; slot++) {
+                this.markDirty(slot);
+            }
             this.saveChanges();
         }
     }
@@ -177,9 +280,9 @@ private void loadCellItems() {
     /**
      * Load a single item.
      * 
-     * @return true when successfully loaded
+     * @return the loaded item with the given stack size, or null if it couldn't be loaded
      */
-    protected abstract boolean loadCellItem(CompoundTag compoundTag, long stackSize);
+    protected abstract T loadCellItem(CompoundTag compoundTag, long stackSize);
 
     @Override
     public IAEStackList<T> getAvailableItems(final IAEStackList<T> out) {
@@ -132,7 +132,7 @@ public T injectItems(T input, Actionable mode, IActionSource src) {
         }
 
         final T l = this.getCellItems().findPrecise(input);
-        if (l != null) {
+        if (l != null && l.getStackSize() > 0) {
             final long remainingItemCount = this.getRemainingItemCount();
             if (remainingItemCount <= 0) {
                 return input;
@@ -142,14 +142,12 @@ public T injectItems(T input, Actionable mode, IActionSource src) {
                 final T r = IAEStack.copy(input);
                 r.setStackSize(r.getStackSize() - remainingItemCount);
                 if (mode == Actionable.MODULATE) {
-                    l.setStackSize(l.getStackSize() + remainingItemCount);
-                    this.saveChanges();
+                    this.changeCellItemAmount(l, remainingItemCount);
                 }
                 return r;
             } else {
                 if (mode == Actionable.MODULATE) {
-                    l.setStackSize(l.getStackSize() + input.getStackSize());
-                    this.saveChanges();
+                    this.changeCellItemAmount(l, input.getStackSize());
                 }
                 return null;
             }
@@ -167,15 +165,13 @@ public T injectItems(T input, Actionable mode, IActionSource src) {
                         final T toWrite = IAEStack.copy(input);
                         toWrite.setStackSize(remainingItemCount);
 
-                        this.cellItems.add(toWrite);
-                        this.saveChanges();
+                        this.addCellItem(toWrite);
                     }
                     return toReturn;
                 }
 
                 if (mode == Actionable.MODULATE) {
-                    this.cellItems.add(input);
-                    this.saveChanges();
+                    this.addCellItem(input);
                 }
 
                 return null;
@@ -196,20 +192,18 @@ public T extractItems(T request, Actionable mode, IActionSource src) {
         T Results = null;
 
         final T l = this.getCellItems().findPrecise(request);
-        if (l != null) {
+        if (l != null && l.getStackSize() > 0) {
             Results = IAEStack.copy(l);
 
             if (l.getStackSize() <= size) {
                 Results.setStackSize(l.getStackSize());
                 if (mode == Actionable.MODULATE) {
-                    l.setStackSize(0);
-                    this.saveChanges();
+                    this.changeCellItemAmount(l, -l.getStackSize());
                 }
             } else {
                 Results.setStackSize(size);
                 if (mode == Actionable.MODULATE) {
-                    l.setStackSize(l.getStackSize() - size);
-                    this.saveChanges();
+                    this.changeCellItemAmount(l, -size);
                 }
             }
         }
@@ -223,7 +217,7 @@ public IStorageChannel<T> getChannel() {
     }
 
     @Override
-    protected boolean loadCellItem(CompoundTag compoundTag, long stackSize) {
+    protected T loadCellItem(CompoundTag compoundTag, long stackSize) {
         // Now load the item stack
         final T t;
         try {
@@ -231,23 +225,19 @@ protected boolean loadCellItem(CompoundTag compoundTag, long stackSize) {
             if (t == null) {
                 AELog.warn("Removing item " + compoundTag
                         + " from storage cell because the associated item type couldn't be found.");
-                return false;
+                return null;
             }
         } catch (Throwable ex) {
             if (AEConfig.instance().isRemoveCrashingItemsOnLoad()) {
                 AELog.warn(ex,
                         "Removing item " + compoundTag + " from storage cell because loading the ItemStack crashed.");
-                return false;
+                return null;
             }
             throw ex;
         }
 
         t.setStackSize(stackSize);
 
-        if (stackSize > 0) {
-            this.cellItems.add(t);
-        }
-
-        return true;
+        return t;
     }
 }
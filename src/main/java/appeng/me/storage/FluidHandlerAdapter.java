@@ -25,6 +25,8 @@
 import java.util.List;
 import java.util.Map;
 
+import com.google.common.primitives.Ints;
+
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.IFluidHandler;
 
@@ -37,6 +39,7 @@
 import appeng.api.storage.IStorageChannel;
 import appeng.api.storage.StorageChannels;
 import appeng.api.storage.data.IAEFluidStack;
+import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IAEStackList;
 import appeng.util.fluid.AEFluidStack;
 
@@ -65,6 +68,9 @@ public FluidHandlerAdapter(IFluidHandler fluidHandler) {
     public IAEFluidStack injectItems(IAEFluidStack input, Actionable type, IActionSource src) {
         FluidStack fluidStack = input.getFluidStack();
 
+        // The handler doesn't tell us which tanks it fills, so compare them before and after
+        int[] amountsBefore = type == Actionable.MODULATE ? this.cache.getAmounts(fluidStack) : null;
+
         // Insert
         int wasFillled = this.fluidHandler.fill(fluidStack, type.getFluidAction());
         int remaining = fluidStack.getAmount() - wasFillled;
@@ -74,6 +80,7 @@ public IAEFluidStack injectItems(IAEFluidStack input, Actionable type, IActionSo
         }
 
         if (type == Actionable.MODULATE) {
+            this.cache.onNetworkChange(fluidStack, amountsBefore);
             this.onInjectOrExtract();
         }
 
@@ -86,6 +93,9 @@ public IAEFluidStack injectItems(IAEFluidStack input, Actionable type, IActionSo
     public IAEFluidStack extractItems(IAEFluidStack request, Actionable mode, IActionSource src) {
         FluidStack requestedFluidStack = request.getFluidStack();
 
+        // The handler doesn't tell us which tanks it drains, so compare them before and after
+        int[] amountsBefore = mode == Actionable.MODULATE ? this.cache.getAmounts(requestedFluidStack) : null;
+
         // Drain the fluid from the tank
         FluidStack gathered = this.fluidHandler.drain(requestedFluidStack, mode.getFluidAction());
         if (gathered.isEmpty()) {
@@ -94,6 +104,7 @@ public IAEFluidStack extractItems(IAEFluidStack request, Actionable mode, IActio
         }
 
         if (mode == Actionable.MODULATE) {
+            this.cache.onNetworkChange(requestedFluidStack, amountsBefore);
             this.onInjectOrExtract();
         }
         return AEFluidStack.fromFluidStack(gathered);
@@ -105,6 +116,9 @@ public TickRateModulation onTick() {
         if (!changes.isEmpty()) {
             this.postDifference(changes);
             return TickRateModulation.URGENT;
+        } else if (this.cache.isScanInProgress()) {
+            // Don't back off before the rolling window has seen the whole inventory.
+            return TickRateModulation.SAME;
         } else {
             return TickRateModulation.SLOWER;
         }
@@ -151,28 +165,79 @@ private void postDifference(Iterable<IAEFluidStack> a) {
 
     private static class InventoryCache {
         private IAEFluidStack[] cachedAeStacks = new IAEFluidStack[0];
+        private final SlotPollingScheduler scheduler = new SlotPollingScheduler();
         private final IFluidHandler fluidHandler;
 
         public InventoryCache(IFluidHandler fluidHandler) {
             this.fluidHandler = fluidHandler;
         }
 
+        /**
+         * @return The amount of the given fluid in each tank.
+         */
+        public int[] getAmounts(FluidStack fluid) {
+            final int tanks = this.fluidHandler.getTanks();
+            final int[] amounts = new int[tanks];
+            for (int tank = 0; tank < tanks; tank++) {
+                amounts[tank] = getAmount(this.fluidHandler.getFluidInTank(tank), fluid);
+            }
+            return amounts;
+        }
+
+        /**
+         * Called after the network filled or drained the given fluid. The network already accounted for that change,
+         * so it is applied to the cache without being reported by the next {@link #update()}. Changes made by others
+         * since the tanks were last read are still reported.
+         *
+         * @param amountsBefore The amount of the fluid in each tank before the network changed it.
+         */
+        public void onNetworkChange(FluidStack fluid, int[] amountsBefore) {
+            final int tanks = this.fluidHandler.getTanks();
+            this.ensureSlots(tanks);
+
+            final List<IAEFluidStack> ignored = new ArrayList<>();
+            for (int tank = 0; tank < Math.min(tanks, amountsBefore.length); tank++) {
+                final FluidStack newFS = this.fluidHandler.getFluidInTank(tank);
+                final int delta = getAmount(newFS, fluid) - amountsBefore[tank];
+                if (delta == 0) {
+                    continue;
+                }
+
+                final IAEFluidStack cached = this.cachedAeStacks[tank];
+                final FluidStack expected;
+                if (cached == null || cached.getFluidStack().isFluidEqual(fluid)) {
+                    final long amount = IAEStack.getStackSizeOrZero(cached) + delta;
+                    expected = amount > 0 ? new FluidStack(fluid, Ints.saturatedCast(amount)) : FluidStack.EMPTY;
+                } else {
+                    // The cache has a different fluid in this tank, so it can only be read again
+                    expected = newFS;
+                }
+                this.handlePossibleSlotChanges(tank, cached, expected, ignored);
+            }
+        }
+
+        private static int getAmount(FluidStack stack, FluidStack fluid) {
+            return stack.isFluidEqual(fluid) ? stack.getAmount() : 0;
+        }
+
+        public boolean isScanInProgress() {
+            return this.scheduler.isCycleInProgress();
+        }
+
         public List<IAEFluidStack> update() {
             final List<IAEFluidStack> changes = new ArrayList<>();
             final int slots = fluidHandler.getTanks();
+            this.ensureSlots(slots);
 
-            // Make room for new slots
-            if (slots > this.cachedAeStacks.length) {
-                this.cachedAeStacks = Arrays.copyOf(this.cachedAeStacks, slots);
-            }
-
-            for (int slot = 0; slot < slots; slot++) {
+            this.scheduler.poll(slots, slot -> {
                 // Save the old stuff
                 final IAEFluidStack oldAEFS = this.cachedAeStacks[slot];
                 final FluidStack newFS = fluidHandler.getFluidInTank(slot);
 
+                final int changeCount = changes.size();
                 this.handlePossibleSlotChanges(slot, oldAEFS, newFS, changes);
-            }
+                return changes.size() != changeCount;
+            });
 
             // Handle cases where the number of slots actually is lower now than before
             if (slots < this.cachedAeStacks.length) {
@@ -196,6 +261,18 @@ public IAEStackList<IAEFluidStack> getAvailableItems(IAEStackList<IAEFluidStack>
             return out;
         }
 
+        /**
+         * Makes room for new slots, and makes sure they're looked at right away.
+         */
+        private void ensureSlots(int slots) {
+            if (slots > this.cachedAeStacks.length) {
+                for (int slot = this.cachedAeStacks.length; slot < slots; slot++) {
+                    this.scheduler.markHot(slot);
+                }
+                this.cachedAeStacks = Arrays.copyOf(this.cachedAeStacks, slots);
+            }
+        }
+
         private void handlePossibleSlotChanges(int slot, IAEFluidStack oldAeFS, FluidStack newFS,
                 List<IAEFluidStack> changes) {
             if (oldAeFS != null && oldAeFS.getFluidStack().isFluidEqual(newFS)) {
@@ -0,0 +1,30 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2021, TeamAppliedEnergistics, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.storage;
+
+/**
+ * Marker for network storage handlers whose contents can only change through the network itself, or through changes
+ * that are posted to the storage service (i.e. cells in drives).
+ * <p>
+ * {@link NetworkInventoryHandler} keeps an index of which of these handlers contain which stacks, instead of probing
+ * them with a simulated extraction on every injection. Handlers without this marker (storage buses, etc.) are always
+ * probed.
+ */
+public interface ITrackedInventoryHandler {
+}
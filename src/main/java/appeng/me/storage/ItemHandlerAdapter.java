@@ -20,15 +20,19 @@
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import com.google.common.primitives.Ints;
 
 import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
 
 import appeng.api.config.Actionable;
 import appeng.api.networking.security.IActionSource;
@@ -39,6 +43,7 @@
 import appeng.api.storage.ItemStorageChannel;
 import appeng.api.storage.StorageChannels;
 import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IAEStackList;
 import appeng.core.AELog;
 import appeng.util.item.AEItemStack;
@@ -69,12 +74,31 @@ public IAEItemStack injectItems(IAEItemStack iox, Actionable type, IActionSource
         ItemStack orgInput = iox.createItemStack();
         ItemStack remaining = orgInput;
 
-        int slotCount = this.itemHandler.getSlots();
         boolean simulate = type == Actionable.SIMULATE;
 
-        // This uses a brute force approach and tries to jam it in every slot the inventory exposes.
-        for (int i = 0; i < slotCount && !remaining.isEmpty(); i++) {
-            remaining = this.itemHandler.insertItem(i, remaining, simulate);
+        if (this.cache.isInitialized()) {
+            // Top up the slots that already hold this item, then fill the slots that were empty.
+            var sameItemSlots = this.cache.getSlotsWith(iox);
+            if (sameItemSlots != null) {
+                remaining = this.insertIntoSlots(sameItemSlots, remaining, simulate);
+            }
+            remaining = this.insertIntoSlots(this.cache.getEmptySlots(), remaining, simulate);
+
+            // Slots that changed recently or were never read may have room the cache doesn't know about yet. Once
+            // the cache has read a slot, it is trusted, so a full inventory doesn't cost a visit to every slot.
+            if (!remaining.isEmpty()) {
+                // Skip the slots tried above. Empty slots filled by now are indexed as holding this item.
+                var unconfirmedSlots = this.cache.getUnconfirmedSlots();
+                var triedSlots = this.cache.getSlotsWith(iox);
+                if (triedSlots != null) {
+                    unconfirmedSlots.andNot(triedSlots);
+                }
+                unconfirmedSlots.andNot(this.cache.getEmptySlots());
+                remaining = this.insertIntoSlots(unconfirmedSlots, remaining, simulate);
+            }
+        } else {
+            // This uses a brute force approach and tries to jam it in every slot the inventory exposes.
+            remaining = this.insertIntoSlots(null, remaining, simulate);
         }
 
         // At this point, we still have some items left...
@@ -99,7 +123,17 @@ public IAEItemStack extractItems(IAEItemStack request, Actionable mode, IActionS
 
         final boolean simulate = mode == Actionable.SIMULATE;
 
-        for (int i = 0; i < this.itemHandler.getSlots(); i++) {
+        // Only visit the slots the cache saw this item in. They are still validated against the handler below.
+        BitSet candidates = null;
+        if (this.cache.isInitialized()) {
+            candidates = this.cache.getSlotsWith(request);
+            if (candidates == null) {
+                return null;
+            }
+        }
+
+        final int slotCount = this.itemHandler.getSlots();
+        for (int i = nextSlot(candidates, 0, slotCount); i >= 0; i = nextSlot(candidates, i + 1, slotCount)) {
             ItemStack stackInInventorySlot = this.itemHandler.getStackInSlot(i);
 
             if (!request.isSameType(stackInInventorySlot)) {
@@ -109,6 +143,7 @@ public IAEItemStack extractItems(IAEItemStack request, Actionable mode, IActionS
             ItemStack extracted;
             int stackSizeCurrentSlot = stackInInventorySlot.getCount();
             int remainingCurrentSlot = Math.min(remainingSize, stackSizeCurrentSlot);
+            final int requestedCurrentSlot = remainingCurrentSlot;
 
             // We have to loop here because according to the docs, the handler shouldn't return a stack with
             // size > maxSize, even if we request more. So even if it returns a valid stack, it might have more stuff.
@@ -150,6 +185,10 @@ public IAEItemStack extractItems(IAEItemStack request, Actionable mode, IActionS
                 }
             } while (!simulate && !extracted.isEmpty() && remainingCurrentSlot > 0);
 
+            if (!simulate && remainingCurrentSlot != requestedCurrentSlot) {
+                this.cache.onNetworkChange(i, gathered, remainingCurrentSlot - requestedCurrentSlot);
+            }
+
             remainingSize -= stackSizeCurrentSlot - remainingCurrentSlot;
 
             // Done?
@@ -169,12 +208,40 @@ public IAEItemStack extractItems(IAEItemStack request, Actionable mode, IActionS
         return null;
     }
 
+    /**
+     * Tries to insert into the given slots in ascending order, or into all slots if none are given.
+     */
+    private ItemStack insertIntoSlots(@Nullable BitSet slots, ItemStack remaining, boolean simulate) {
+        final int slotCount = this.itemHandler.getSlots();
+        int slot = nextSlot(slots, 0, slotCount);
+        while (slot >= 0 && !remaining.isEmpty()) {
+            var offered = remaining;
+            remaining = this.itemHandler.insertItem(slot, offered, simulate);
+            if (!simulate && remaining.getCount() != offered.getCount()) {
+                this.cache.onNetworkChange(slot, offered, offered.getCount() - remaining.getCount());
+            }
+            slot = nextSlot(slots, slot + 1, slotCount);
+        }
+        return remaining;
+    }
+
+    /**
+     * @return The next slot starting at from that is in the given set (or any slot if the set is null), or -1.
+     */
+    private static int nextSlot(@Nullable BitSet slots, int from, int slotCount) {
+        int next = slots == null ? from : slots.nextSetBit(from);
+        return next >= 0 && next < slotCount ? next : -1;
+    }
+
     @Override
     public TickRateModulation onTick() {
         List<IAEItemStack> changes = this.cache.update();
         if (!changes.isEmpty()) {
             this.postDifference(changes);
             return TickRateModulation.URGENT;
+        } else if (this.cache.isScanInProgress()) {
+            // Don't back off before the rolling window has seen the whole inventory.
+            return TickRateModulation.SAME;
         } else {
             return TickRateModulation.SLOWER;
         }
@@ -221,12 +288,76 @@ private void postDifference(Iterable<IAEItemStack> a) {
 
     private static class InventoryCache {
         private IAEItemStack[] cachedAeStacks = new IAEItemStack[0];
+        // Index of the cached slot contents, so inserts and extracts only have to visit the slots that matter.
+        private final Map<IAEItemStack, BitSet> slotsByItem = new HashMap<>();
+        private final BitSet emptySlots = new BitSet();
+        private boolean initialized = false;
+        private final SlotPollingScheduler scheduler = new SlotPollingScheduler();
         private final IItemHandler itemHandler;
 
         public InventoryCache(IItemHandler itemHandler) {
             this.itemHandler = itemHandler;
         }
 
+        /**
+         * @return True once the cache has been built, before that the slot index is meaningless.
+         */
+        public boolean isInitialized() {
+            return this.initialized;
+        }
+
+        @Nullable
+        public BitSet getSlotsWith(IAEItemStack what) {
+            return this.slotsByItem.get(what);
+        }
+
+        public BitSet getEmptySlots() {
+            return this.emptySlots;
+        }
+
+        /**
+         * Called after the network inserted into or extracted from a slot. The network already accounted for that
+         * change, so it is applied to the cache without being reported by the next {@link #update()}. Changes made by
+         * others since the slot was last read are still reported.
+         *
+         * @param what  The item that was inserted or extracted.
+         * @param delta The amount that was inserted (positive) or extracted (negative).
+         */
+        public void onNetworkChange(int slot, ItemStack what, int delta) {
+            this.ensureSlots(this.itemHandler.getSlots());
+            if (slot < this.cachedAeStacks.length) {
+                final IAEItemStack cached = this.cachedAeStacks[slot];
+                final ItemStack expected;
+                if (cached == null || cached.isSameType(what)) {
+                    final long amount = IAEStack.getStackSizeOrZero(cached) + delta;
+                    expected = amount > 0 ? ItemHandlerHelper.copyStackWithSize(what, Ints.saturatedCast(amount))
+                            : ItemStack.EMPTY;
+                } else {
+                    // The cache has a different item in this slot, so it can only be read again
+                    expected = this.itemHandler.getStackInSlot(slot);
+                }
+                this.handlePossibleSlotChanges(slot, cached, expected, new ArrayList<>());
+            }
+            this.scheduler.markHot(slot);
+        }
+
+        public boolean isScanInProgress() {
+            return this.scheduler.isCycleInProgress();
+        }
+
+        /**
+         * @return A new set of the slots whose cached content may be out of date, because they changed recently or
+         *         were never read.
+         */
+        public BitSet getUnconfirmedSlots() {
+            final BitSet slots = this.scheduler.getHotSlots();
+            final int slotCount = this.itemHandler.getSlots();
+            if (slotCount > this.cachedAeStacks.length) {
+                slots.set(this.cachedAeStacks.length, slotCount);
+            }
+            return slots;
+        }
+
         public IAEStackList<IAEItemStack> getAvailableItems(IAEStackList<IAEItemStack> out) {
             Arrays.stream(this.cachedAeStacks).forEach(out::add);
             return out;
@@ -235,19 +366,18 @@ public IAEStackList<IAEItemStack> getAvailableItems(IAEStackList<IAEItemStack> o
         public List<IAEItemStack> update() {
             final List<IAEItemStack> changes = new ArrayList<>();
             final int slots = this.itemHandler.getSlots();
+            this.initialized = true;
+            this.ensureSlots(slots);
 
-            // Make room for new slots
-            if (slots > this.cachedAeStacks.length) {
-                this.cachedAeStacks = Arrays.copyOf(this.cachedAeStacks, slots);
-            }
-
-            for (int slot = 0; slot < slots; slot++) {
+            this.scheduler.poll(slots, slot -> {
                 // Save the old stuff
                 final IAEItemStack oldAeIS = this.cachedAeStacks[slot];
                 final ItemStack newIS = this.itemHandler.getStackInSlot(slot);
 
+                final int changeCount = changes.size();
                 this.handlePossibleSlotChanges(slot, oldAeIS, newIS, changes);
-            }
+                return changes.size() != changeCount;
+            });
 
             // Handle cases where the number of slots actually is lower now than before
             if (slots < this.cachedAeStacks.length) {
@@ -255,6 +385,7 @@ public List<IAEItemStack> update() {
                     final IAEItemStack aeStack = this.cachedAeStacks[slot];
 
                     if (aeStack != null) {
+                        this.unindexSlot(slot, aeStack);
                         final IAEItemStack a = aeStack.copy();
                         a.setStackSize(-a.getStackSize());
                         changes.add(a);
@@ -263,11 +394,24 @@ public List<IAEItemStack> update() {
 
                 // Reduce the cache size
                 this.cachedAeStacks = Arrays.copyOf(this.cachedAeStacks, slots);
+                this.emptySlots.clear(slots, Math.max(slots, this.emptySlots.length()));
             }
 
             return changes;
         }
 
+        /**
+         * Makes room for new slots, and makes sure they're looked at right away.
+         */
+        private void ensureSlots(int slots) {
+            if (slots > this.cachedAeStacks.length) {
+                for (int slot = this.cachedAeStacks.length; slot < slots; slot++) {
+                    this.scheduler.markHot(slot);
+                }
+                this.cachedAeStacks = Arrays.copyOf(this.cachedAeStacks, slots);
+            }
+        }
+
         private void handlePossibleSlotChanges(int slot, IAEItemStack oldAeIS, ItemStack newIS,
                 List<IAEItemStack> changes) {
             if (oldAeIS != null && oldAeIS.isSameType(newIS)) {
@@ -298,8 +442,16 @@ private void handleItemChanged(int slot, IAEItemStack oldAeIS, ItemStack newIS,
             // Completely different item
             this.cachedAeStacks[slot] = AEItemStack.fromItemStack(newIS);
 
+            if (this.cachedAeStacks[slot] != null) {
+                this.emptySlots.clear(slot);
+                this.slotsByItem.computeIfAbsent(this.cachedAeStacks[slot], k -> new BitSet()).set(slot);
+            } else {
+                this.emptySlots.set(slot);
+            }
+
             // If we had a stack previously in this slot, notify the network about its disappearance
             if (oldAeIS != null) {
+                this.unindexSlot(slot, oldAeIS);
                 oldAeIS.setStackSize(-oldAeIS.getStackSize());
                 changes.add(oldAeIS);
             }
@@ -309,6 +461,16 @@ private void handleItemChanged(int slot, IAEItemStack oldAeIS, ItemStack newIS,
                 changes.add(this.cachedAeStacks[slot]);
             }
         }
+
+        private void unindexSlot(int slot, IAEItemStack stack) {
+            var slots = this.slotsByItem.get(stack);
+            if (slots != null) {
+                slots.clear(slot);
+                if (slots.isEmpty()) {
+                    this.slotsByItem.remove(stack);
+                }
+            }
+        }
     }
 
 }
@@ -20,11 +20,16 @@
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Set;
 import java.util.TreeMap;
 
 import appeng.api.config.Actionable;
@@ -48,7 +53,19 @@
     private static int currentPass = 0;
     private final IStorageChannel<T> myChannel;
     private final SecurityService security;
-    private final NavigableMap<Integer, List<IMEInventoryHandler<T>>> priorityInventory;
+    /**
+     * Replaced instead of modified when storage is added or removed, so that operations already iterating over it are
+     * not disturbed by cell array updates they trigger.
+     */
+    private NavigableMap<Integer, List<IMEInventoryHandler<T>>> priorityInventory;
+    private final Set<IMEInventoryHandler<T>> trackedInventory = newHandlerSet();
+    /**
+     * Maps stacks to the {@link ITrackedInventoryHandler tracked handlers} that are known to contain them. Each entry
+     * is a superset of the handlers actually containing the stack, handlers that ran dry are pruned lazily. Stacks
+     * without an entry are looked up by probing all tracked handlers the next time they are needed. Only non-empty
+     * entries are kept, so stacks that never end up in tracked handlers don't accumulate here.
+     */
+    private final Map<T, Set<IMEInventoryHandler<T>>> stackLocations = new HashMap<>();
     private int myPass = 0;
 
     public NetworkInventoryHandler(final IStorageChannel<T> chan, SecurityService security) {
@@ -59,6 +76,65 @@ public NetworkInventoryHandler(final IStorageChannel<T> chan, SecurityService se
 
     public void addNewStorage(final IMEInventoryHandler<T> h) {
         this.priorityInventory.computeIfAbsent(h.getPriority(), k -> new ArrayList<>()).add(h);
+        this.track(h);
+    }
+
+    /**
+     * Removes and adds storage of a network that is already in use. The handler lists are copied rather than modified,
+     * since the update may have been triggered by an operation that is still iterating over them.
+     */
+    public void updateStorage(final List<IMEInventoryHandler<T>> removed, final List<IMEInventoryHandler<T>> added) {
+        final NavigableMap<Integer, List<IMEInventoryHandler<T>>> inventory = new TreeMap<>(PRIORITY_SORTER);
+        final Set<IMEInventoryHandler<T>> removedSet = newHandlerSet();
+        removedSet.addAll(removed);
+
+        for (final Map.Entry<Integer, List<IMEInventoryHandler<T>>> entry : this.priorityInventory.entrySet()) {
+            final List<IMEInventoryHandler<T>> invList = new ArrayList<>(entry.getValue());
+            invList.removeIf(removedSet::contains);
+            if (!invList.isEmpty()) {
+                inventory.put(entry.getKey(), invList);
+            }
+        }
+
+        for (final IMEInventoryHandler<T> h : added) {
+            inventory.computeIfAbsent(h.getPriority(), k -> new ArrayList<>()).add(h);
+        }
+
+        this.priorityInventory = inventory;
+
+        for (final IMEInventoryHandler<T> h : removed) {
+            if (this.trackedInventory.remove(h)) {
+                this.stackLocations.values().removeIf(locations -> locations.remove(h) && locations.isEmpty());
+            }
+        }
+
+        for (final IMEInventoryHandler<T> h : added) {
+            this.track(h);
+        }
+    }
+
+    private void track(final IMEInventoryHandler<T> h) {
+        if (h instanceof ITrackedInventoryHandler) {
+            this.trackedInventory.add(h);
+            // The contents of the new handler are unknown to the index
+            this.stackLocations.clear();
+        }
+    }
+
+    /**
+     * Called by the storage service for changes of the stored items that did not pass through this handler, i.e.
+     * changes made directly to a cell. The location of the changed stacks will be looked up again on next use.
+     */
+    public void onStackChanges(final Iterable<T> changes) {
+        if (this.stackLocations.isEmpty()) {
+            return;
+        }
+
+        for (final T change : changes) {
+            if (change != null) {
+                this.stackLocations.remove(change);
+            }
+        }
     }
 
     @Override
@@ -72,14 +148,34 @@ public T injectItems(T input, final Actionable type, final IActionSource src) {
             return input;
         }
 
+        Set<IMEInventoryHandler<T>> locations = null;
+
         for (final List<IMEInventoryHandler<T>> invList : this.priorityInventory.values()) {
             Iterator<IMEInventoryHandler<T>> ii = invList.iterator();
             while (ii.hasNext() && input != null) {
                 final IMEInventoryHandler<T> inv = ii.next();
 
-                if (inv.validForPass(1) && inv.canAccept(input)
-                        && (inv.isPrioritized(input) || inv.extractItems(input, Actionable.SIMULATE, src) != null)) {
-                    input = inv.injectItems(input, type, src);
+                if (!inv.validForPass(1) || !inv.canAccept(input)) {
+                    continue;
+                }
+
+                if (inv.isPrioritized(input)) {
+                    input = this.injectInto(inv, input, type, src);
+                } else if (this.trackedInventory.contains(inv)) {
+                    if (locations == null) {
+                        locations = this.getStackLocations(input, src);
+                    }
+
+                    // Entries are pruned lazily, so confirm the candidate still holds the stack
+                    if (locations.contains(inv)) {
+                        if (inv.extractItems(input, Actionable.SIMULATE, src) != null) {
+                            input = this.injectInto(inv, input, type, src);
+                        } else {
+                            this.removeLocation(input, locations, inv);
+                        }
+                    }
+                } else if (inv.extractItems(input, Actionable.SIMULATE, src) != null) {
+                    input = this.injectInto(inv, input, type, src);
                 }
             }
 
@@ -94,7 +190,7 @@ public T injectItems(T input, final Actionable type, final IActionSource src) {
                 final IMEInventoryHandler<T> inv = ii.next();
 
                 if (inv.validForPass(2) && inv.canAccept(input) && !inv.isPrioritized(input)) {
-                    input = inv.injectItems(input, type, src);
+                    input = this.injectInto(inv, input, type, src);
                 }
             }
         }
@@ -104,6 +200,58 @@ public T injectItems(T input, final Actionable type, final IActionSource src) {
         return input;
     }
 
+    private T injectInto(final IMEInventoryHandler<T> inv, final T input, final Actionable type,
+            final IActionSource src) {
+        final T leftover = inv.injectItems(input, type, src);
+
+        if (type == Actionable.MODULATE && this.trackedInventory.contains(inv)
+                && (leftover == null || leftover.getStackSize() < input.getStackSize())) {
+            // Without an entry there is nothing to keep current, the next lookup will find this handler
+            final Set<IMEInventoryHandler<T>> locations = this.stackLocations.get(input);
+            if (locations != null) {
+                locations.add(inv);
+            }
+        }
+
+        return leftover;
+    }
+
+    private Set<IMEInventoryHandler<T>> getStackLocations(final T stack, final IActionSource src) {
+        Set<IMEInventoryHandler<T>> locations = this.stackLocations.get(stack);
+
+        if (locations == null) {
+            locations = newHandlerSet();
+
+            final T probe = IAEStack.copy(stack, 1);
+            for (final IMEInventoryHandler<T> inv : this.trackedInventory) {
+                if (inv.extractItems(probe, Actionable.SIMULATE, src) != null) {
+                    locations.add(inv);
+                }
+            }
+
+            // Stacks that are in none of the tracked handlers are probed again next time
+            if (!locations.isEmpty()) {
+                this.stackLocations.put(IAEStack.copy(stack, 0), locations);
+            }
+        }
+
+        return locations;
+    }
+
+    /**
+     * Removes a handler that no longer holds the stack from its locations, and drops the entry once it is empty.
+     */
+    private void removeLocation(final T stack, final Set<IMEInventoryHandler<T>> locations,
+            final IMEInventoryHandler<T> inv) {
+        if (locations.remove(inv) && locations.isEmpty()) {
+            this.stackLocations.remove(stack, locations);
+        }
+    }
+
+    private static <T extends IAEStack> Set<IMEInventoryHandler<T>> newHandlerSet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
     private boolean diveList(final NetworkInventoryHandler<T> networkInventoryHandler, final Actionable type) {
         var cDepth = this.getDepth(type);
         if (cDepth.contains(networkInventoryHandler)) {
@@ -176,6 +324,9 @@ public T extractItems(T request, final Actionable mode, final IActionSource src)
         output.setStackSize(0);
         final long req = request.getStackSize();
 
+        final Set<IMEInventoryHandler<T>> locations = this.trackedInventory.isEmpty() ? null
+                : this.getStackLocations(request, src);
+
         while (i.hasNext()) {
             final List<IMEInventoryHandler<T>> invList = i.next();
 
@@ -183,8 +334,19 @@ public T extractItems(T request, final Actionable mode, final IActionSource src)
             while (ii.hasNext() && output.getStackSize() < req) {
                 final IMEInventoryHandler<T> inv = ii.next();
 
+                final boolean tracked = locations != null && this.trackedInventory.contains(inv);
+                if (tracked && !locations.contains(inv)) {
+                    continue;
+                }
+
                 request.setStackSize(req - output.getStackSize());
-                IAEStack.add(output, inv.extractItems(request, mode, src));
+                final T extracted = inv.extractItems(request, mode, src);
+
+                if (extracted == null && tracked) {
+                    this.removeLocation(request, locations, inv);
+                }
+
+                IAEStack.add(output, extracted);
             }
         }
 
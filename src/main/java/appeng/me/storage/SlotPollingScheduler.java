@@ -0,0 +1,100 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2021, TeamAppliedEnergistics, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.storage;
+
+import java.util.BitSet;
+
+/**
+ * Decides which slots of an external inventory are re-read when its cache is polled.
+ * <p/>
+ * Small inventories are scanned completely on every poll. Larger ones are scanned in a rolling window, so a full
+ * rescan is spread over several polls. Slots that recently changed, or that the network just inserted into or
+ * extracted from, are checked on every poll until they stop changing.
+ */
+final class SlotPollingScheduler {
+    /**
+     * Number of slots sampled by the rolling window on each poll.
+     */
+    static final int WINDOW_SIZE = 64;
+
+    private final BitSet hotSlots = new BitSet();
+    private int cursor = 0;
+    private boolean fullScanPending = true;
+
+    @FunctionalInterface
+    interface SlotVisitor {
+        /**
+         * @return True if the slot changed compared to the cache.
+         */
+        boolean visit(int slot);
+    }
+
+    /**
+     * Hint that the slot was just modified, so it's checked on the next poll.
+     */
+    void markHot(int slot) {
+        this.hotSlots.set(slot);
+    }
+
+    /**
+     * @return A copy of the slots that will be checked on the next poll because they changed recently.
+     */
+    BitSet getHotSlots() {
+        return (BitSet) this.hotSlots.clone();
+    }
+
+    /**
+     * @return True if the rolling window has not yet covered the whole inventory since the last full scan.
+     */
+    boolean isCycleInProgress() {
+        return this.cursor != 0;
+    }
+
+    void poll(int slotCount, SlotVisitor visitor) {
+        if (this.fullScanPending || slotCount <= WINDOW_SIZE) {
+            this.fullScanPending = false;
+            this.hotSlots.clear();
+            this.cursor = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                visitor.visit(slot);
+            }
+            return;
+        }
+
+        // Slots that changed recently or were touched by the network come first, and stay hot while they change.
+        this.hotSlots.clear(slotCount, Math.max(slotCount, this.hotSlots.length()));
+        for (int slot = this.hotSlots.nextSetBit(0); slot >= 0; slot = this.hotSlots.nextSetBit(slot + 1)) {
+            if (!visitor.visit(slot)) {
+                this.hotSlots.clear(slot);
+            }
+        }
+
+        // Then advance the rolling window.
+        if (this.cursor >= slotCount) {
+            this.cursor = 0;
+        }
+        final int end = Math.min(this.cursor + WINDOW_SIZE, slotCount);
+        for (int slot = this.cursor; slot < end; slot++) {
+            if (visitor.visit(slot)) {
+                this.hotSlots.set(slot);
+            }
+        }
+        this.cursor = end >= slotCount ? 0 : end;
+    }
+}
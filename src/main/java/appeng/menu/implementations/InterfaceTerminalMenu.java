@@ -18,8 +18,13 @@
 
 package appeng.menu.implementations;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
 
 import javax.annotation.Nullable;
 
@@ -28,10 +33,12 @@
 import net.minecraft.network.chat.Component.Serializer;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.MenuType;
 import net.minecraft.world.item.ItemStack;
 
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 
 import appeng.api.config.SecurityPermissions;
 import appeng.api.config.Settings;
@@ -48,6 +55,7 @@
 import appeng.helpers.InventoryAction;
 import appeng.helpers.iface.DualityPatternProvider;
 import appeng.helpers.iface.IPatternProviderHost;
+import appeng.me.service.InterfaceTerminalService;
 import appeng.menu.AEBaseMenu;
 import appeng.parts.crafting.PatternProviderPart;
 import appeng.parts.reporting.InterfaceTerminalPart;
@@ -65,6 +73,12 @@ public final class InterfaceTerminalMenu extends AEBaseMenu {
             .requirePermission(SecurityPermissions.BUILD)
             .build("interfaceterminal");
 
+    /**
+     * Number of tracked inventories whose name and visibility are re-checked each tick. Names depend on the
+     * surroundings of the pattern provider, so they can't be observed directly.
+     */
+    private static final int TRACKERS_CHECKED_PER_TICK = 16;
+
     /**
      * this stuff is all server side..
      */
@@ -74,6 +88,14 @@ public final class InterfaceTerminalMenu extends AEBaseMenu {
     private static long inventorySerial = Long.MIN_VALUE;
     private final Map<IPatternProviderHost, InvTracker> diList = new IdentityHashMap<>();
     private final Long2ObjectOpenHashMap<InvTracker> byId = new Long2ObjectOpenHashMap<>();
+    private final List<InvTracker> trackers = new ArrayList<>();
+    // Trackers whose pattern inventory reported changes since the last update
+    private final Set<InvTracker> dirtyTrackers = new ReferenceOpenHashSet<>();
+    private boolean needsFullUpdate = true;
+    @Nullable
+    private IGrid trackedGrid;
+    private long trackedGeneration;
+    private int checkCursor;
 
     public InterfaceTerminalMenu(int id, final Inventory ip, final InterfaceTerminalPart anchor) {
         super(TYPE, id, ip, anchor);
@@ -90,14 +112,26 @@ public void broadcastChanges() {
 
         IGrid grid = getGrid();
 
-        VisitorState state = new VisitorState();
-        if (grid != null) {
-            visitInterfaceHosts(grid, PatternProviderBlockEntity.class, state);
-            visitInterfaceHosts(grid, PatternProviderPart.class, state);
+        boolean fullUpdate = this.needsFullUpdate || grid != this.trackedGrid;
+
+        // Only look for new or missing pattern providers if any of them changed their state since the last check
+        long generation = grid != null ? InterfaceTerminalService.get(grid).getGeneration() : 0;
+        if (!fullUpdate && generation != this.trackedGeneration) {
+            VisitorState state = new VisitorState();
+            if (grid != null) {
+                visitInterfaceHosts(grid, PatternProviderBlockEntity.class, state);
+                visitInterfaceHosts(grid, PatternProviderPart.class, state);
+            }
+            fullUpdate = state.total != this.diList.size() || state.forceFullUpdate;
+        }
+        this.trackedGeneration = generation;
+
+        if (!fullUpdate) {
+            fullUpdate = this.hasStaleTrackers(grid);
         }
 
         InterfaceTerminalPacket packet;
-        if (state.total != this.diList.size() || state.forceFullUpdate) {
+        if (fullUpdate) {
             packet = this.createFullUpdate(grid);
         } else {
             packet = createIncrementalUpdate();
@@ -108,6 +142,30 @@ public void broadcastChanges() {
         }
     }
 
+    @Override
+    public void removed(Player player) {
+        super.removed(player);
+        this.clearTrackers();
+    }
+
+    /**
+     * Re-checks the next few tracked inventories, to notice renamed pattern providers and ones that left the grid
+     * without a state change, i.e. because they were removed.
+     */
+    private boolean hasStaleTrackers(@Nullable IGrid grid) {
+        int count = Math.min(this.trackers.size(), TRACKERS_CHECKED_PER_TICK);
+        for (int i = 0; i < count; i++) {
+            if (this.checkCursor >= this.trackers.size()) {
+                this.checkCursor = 0;
+            }
+            var tracker = this.trackers.get(this.checkCursor++);
+            if (!tracker.dual.isVisibleInTerminal(grid) || !tracker.name.equals(tracker.dual.getTermName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Nullable
     private IGrid getGrid() {
         IActionHost host = this.getActionHost();
@@ -147,7 +205,7 @@ private <T extends IPatternProviderHost> void visitInterfaceHosts(IGrid grid, Cl
     @Override
     public void doAction(final ServerPlayer player, final InventoryAction action, final int slot, final long id) {
         final InvTracker inv = this.byId.get(id);
-        if (inv == null) {
+        if (inv == null || !inv.dual.isVisibleInTerminal(getGrid())) {
             // Can occur if the client sent an interaction packet right before an inventory got removed
             return;
         }
@@ -235,8 +293,9 @@ public void doAction(final ServerPlayer player, final InventoryAction action, fi
     }
 
     private InterfaceTerminalPacket createFullUpdate(@Nullable IGrid grid) {
-        this.byId.clear();
-        this.diList.clear();
+        this.clearTrackers();
+        this.needsFullUpdate = false;
+        this.trackedGrid = grid;
 
         if (grid == null) {
             return new InterfaceTerminalPacket(true, new CompoundTag());
@@ -245,37 +304,53 @@ private InterfaceTerminalPacket createFullUpdate(@Nullable IGrid grid) {
         for (var ih : grid.getActiveMachines(PatternProviderBlockEntity.class)) {
             var dual = ih.getDuality();
             if (dual.getConfigManager().getSetting(Settings.INTERFACE_TERMINAL) == YesNo.YES) {
-                this.diList.put(ih, new InvTracker(dual, dual.getPatternInv(), dual.getTermName()));
+                this.diList.put(ih, new InvTracker(dual, dual.getTermName(), this.dirtyTrackers));
             }
         }
 
         for (var ih : grid.getActiveMachines(PatternProviderPart.class)) {
             var dual = ih.getDuality();
             if (dual.getConfigManager().getSetting(Settings.INTERFACE_TERMINAL) == YesNo.YES) {
-                this.diList.put(ih, new InvTracker(dual, dual.getPatternInv(), dual.getTermName()));
+                this.diList.put(ih, new InvTracker(dual, dual.getTermName(), this.dirtyTrackers));
             }
         }
 
         CompoundTag data = new CompoundTag();
         for (var inv : this.diList.values()) {
             this.byId.put(inv.serverId, inv);
+            this.trackers.add(inv);
+            inv.dual.addPatternSlotListener(inv.slotListener);
             this.addItems(data, inv, 0, inv.server.size());
         }
         return new InterfaceTerminalPacket(true, data);
     }
 
+    private void clearTrackers() {
+        for (var inv : this.trackers) {
+            inv.dual.removePatternSlotListener(inv.slotListener);
+        }
+        this.trackers.clear();
+        this.dirtyTrackers.clear();
+        this.byId.clear();
+        this.diList.clear();
+        this.checkCursor = 0;
+    }
+
     private InterfaceTerminalPacket createIncrementalUpdate() {
         CompoundTag data = null;
-        for (var inv : this.diList.values()) {
-            for (int x = 0; x < inv.server.size(); x++) {
-                if (this.isDifferent(inv.server.getStackInSlot(x), inv.client.getStackInSlot(x))) {
+        for (var inv : this.dirtyTrackers) {
+            for (int x = inv.dirtySlots.nextSetBit(0); x >= 0; x = inv.dirtySlots.nextSetBit(x + 1)) {
+                if (x < inv.server.size()
+                        && this.isDifferent(inv.server.getStackInSlot(x), inv.client.getStackInSlot(x))) {
                     if (data == null) {
                         data = new CompoundTag();
                     }
                     this.addItems(data, inv, x, 1);
                 }
             }
+            inv.dirtySlots.clear();
         }
+        this.dirtyTrackers.clear();
         if (data != null) {
             return new InterfaceTerminalPacket(false, data);
         }
@@ -326,16 +401,26 @@ private static class InvTracker {
         private final long sortBy;
         private final long serverId = inventorySerial++;
         private final Component name;
+        private final DualityPatternProvider dual;
         // This is used to track the inventory contents we sent to the client for change detection
         private final InternalInventory client;
         // This is a reference to the real inventory used by this machine
         private final InternalInventory server;
-
-        public InvTracker(final DualityPatternProvider dual, final InternalInventory patterns, final Component name) {
-            this.server = patterns;
+        // Slots reported as changed by the pattern provider since the last update
+        private final BitSet dirtySlots = new BitSet();
+        private final IntConsumer slotListener;
+
+        public InvTracker(final DualityPatternProvider dual, final Component name,
+                final Set<InvTracker> dirtyTrackers) {
+            this.dual = dual;
+            this.server = dual.getPatternInv();
             this.client = new AppEngInternalInventory(this.server.size());
             this.name = name;
             this.sortBy = dual.getSortValue();
+            this.slotListener = slot -> {
+                this.dirtySlots.set(slot);
+                dirtyTrackers.add(this);
+            };
         }
     }
 
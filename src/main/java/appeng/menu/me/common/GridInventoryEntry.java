@@ -20,10 +20,13 @@
 
 import javax.annotation.Nullable;
 
+import io.netty.buffer.Unpooled;
+
 import net.minecraft.network.FriendlyByteBuf;
 
 import appeng.api.storage.IStorageChannel;
 import appeng.api.storage.data.IAEStack;
+import appeng.core.AELog;
 
 /**
  * Contains information about something that is stored inside of the grid inventory. This is used to synchronize the
@@ -34,6 +37,12 @@
  * @param <T> The general type of what is being stored (items, fluids, etc.)
  */
 public class GridInventoryEntry<T extends IAEStack> {
+    // How the stack of an entry is sent, see StackDictionary
+    private static final byte STACK_NONE = 0;
+    private static final byte STACK_INLINE = 1;
+    private static final byte STACK_DEFINE = 2;
+    private static final byte STACK_REFERENCE = 3;
+
     private final long serial;
 
     @Nullable
@@ -98,7 +107,7 @@ public boolean isCraftable() {
      */
     public void write(FriendlyByteBuf buffer) {
         buffer.writeVarLong(serial);
-        buffer.writeBoolean(stack != null);
+        buffer.writeByte(stack != null ? STACK_INLINE : STACK_NONE);
         if (stack != null) {
             stack.writeToPacket(buffer);
         }
@@ -107,6 +116,47 @@ public void write(FriendlyByteBuf buffer) {
         buffer.writeBoolean(craftable);
     }
 
+    /**
+     * Writes an entry in the same format as {@link #write(FriendlyByteBuf)}, but with a stack that was previously
+     * encoded using {@link #encodeStack(IAEStack)}. This allows the encoding to be shared between several clients.
+     *
+     * @param encodedStack   The encoded stack, or null if the client already knows it.
+     * @param dictionarySlot The slot of the stack in the client's {@link StackDictionary}, or -1. If an encoded stack
+     *                       is given too, the client stores it in that slot, otherwise the client looks it up there.
+     */
+    public static void write(FriendlyByteBuf buffer, long serial, @Nullable byte[] encodedStack, int dictionarySlot,
+            long storedAmount, long requestableAmount, boolean craftable) {
+        buffer.writeVarLong(serial);
+        if (encodedStack != null) {
+            if (dictionarySlot >= 0) {
+                buffer.writeByte(STACK_DEFINE);
+                buffer.writeVarInt(dictionarySlot);
+            } else {
+                buffer.writeByte(STACK_INLINE);
+            }
+            buffer.writeBytes(encodedStack);
+        } else if (dictionarySlot >= 0) {
+            buffer.writeByte(STACK_REFERENCE);
+            buffer.writeVarInt(dictionarySlot);
+        } else {
+            buffer.writeByte(STACK_NONE);
+        }
+        buffer.writeVarLong(storedAmount);
+        buffer.writeVarLong(requestableAmount);
+        buffer.writeBoolean(craftable);
+    }
+
+    /**
+     * Encodes a stack the way it is written by {@link #write(FriendlyByteBuf)}.
+     */
+    public static byte[] encodeStack(IAEStack stack) {
+        var buffer = new FriendlyByteBuf(Unpooled.buffer());
+        stack.writeToPacket(buffer);
+        var encoded = new byte[buffer.readableBytes()];
+        buffer.readBytes(encoded);
+        return encoded;
+    }
+
     /**
      * Reads an inventory entry from a packet for a given storage channel. The storage channel is used to read the
      * {@link #stack} field.
@@ -114,16 +164,41 @@ public void write(FriendlyByteBuf buffer) {
     public static <T extends IAEStack> GridInventoryEntry<T> read(IStorageChannel<T> storageChannel,
             FriendlyByteBuf buffer) {
         long serial = buffer.readVarLong();
-        T stack = null;
-        if (buffer.readBoolean()) {
-            stack = storageChannel.readFromPacket(buffer);
-        }
+        T stack = switch (buffer.readByte()) {
+            case STACK_NONE -> null;
+            case STACK_INLINE -> storageChannel.readFromPacket(buffer);
+            case STACK_DEFINE -> {
+                int slot = readDictionarySlot(buffer);
+                T definition = storageChannel.readFromPacket(buffer);
+                StackDictionary.defineOnClient(slot, definition);
+                yield definition;
+            }
+            case STACK_REFERENCE -> {
+                int slot = readDictionarySlot(buffer);
+                var known = StackDictionary.lookupOnClient(slot);
+                if (known == null || known.getChannel() != storageChannel) {
+                    AELog.warn("Server referred to unknown stack dictionary slot %d", slot);
+                    StackDictionary.markClientOutOfSync();
+                    yield null;
+                }
+                yield known.cast(storageChannel);
+            }
+            default -> throw new IllegalArgumentException("Invalid inventory entry");
+        };
         long storedAmount = buffer.readVarLong();
         long requestableAmount = buffer.readVarLong();
         boolean craftable = buffer.readBoolean();
         return new GridInventoryEntry<>(serial, stack, storedAmount, requestableAmount, craftable);
     }
 
+    private static int readDictionarySlot(FriendlyByteBuf buffer) {
+        int slot = buffer.readVarInt();
+        if (slot < 0 || slot >= StackDictionary.CAPACITY) {
+            throw new IllegalArgumentException("Invalid stack dictionary slot " + slot);
+        }
+        return slot;
+    }
+
     /**
      * @return True if this entry should still be present, otherwise it's a removal.
      */
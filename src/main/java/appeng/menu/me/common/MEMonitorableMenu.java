@@ -50,10 +50,7 @@
 import appeng.api.networking.energy.IEnergyService;
 import appeng.api.networking.energy.IEnergySource;
 import appeng.api.networking.security.IActionHost;
-import appeng.api.networking.security.IActionSource;
-import appeng.api.networking.storage.IBaseMonitor;
 import appeng.api.storage.IMEMonitor;
-import appeng.api.storage.IMEMonitorHandlerReceiver;
 import appeng.api.storage.IStorageChannel;
 import appeng.api.storage.ITerminalHost;
 import appeng.api.storage.data.IAEStack;
@@ -79,7 +76,7 @@
  * @see MEMonitorableScreen
  */
 public abstract class MEMonitorableMenu<T extends IAEStack> extends AEBaseMenu
-        implements IConfigManagerListener, IConfigurableObject, IMEMonitorHandlerReceiver<T>, IMEInteractionHandler {
+        implements IConfigManagerListener, IConfigurableObject, IMEInteractionHandler {
 
     private final List<RestrictedInputSlot> viewCellSlots;
     private final IConfigManager clientCM;
@@ -101,7 +98,12 @@
     protected final IEnergySource powerSource;
     protected final IMEMonitor<T> monitor;
 
-    private final IncrementalUpdateHelper<T> updateHelper = new IncrementalUpdateHelper<>();
+    /**
+     * Our position in the journal of changes to {@link #monitor}, which is shared with other terminals viewing it. This
+     * is only non-null on the server-side.
+     */
+    @Nullable
+    private final StorageChangeJournal.Viewer<T> journalViewer;
 
     private final IStorageChannel<T> storageChannel;
 
@@ -127,12 +129,13 @@ public MEMonitorableMenu(MenuType<?> menuType, int id, Inventory ip,
         this.clientCM.registerSetting(Settings.SORT_DIRECTION, SortDir.ASCENDING);
 
         IEnergySource powerSource = null;
+        StorageChangeJournal.Viewer<T> journalViewer = null;
         if (isServer()) {
             this.serverCM = host.getConfigManager();
 
             this.monitor = host.getInventory(storageChannel);
             if (this.monitor != null) {
-                this.monitor.addListener(this, null);
+                journalViewer = StorageChangeJournal.subscribe(this.monitor);
 
                 if (host instanceof IPortableCell || host instanceof IMEChest) {
                     powerSource = (IEnergySource) host;
@@ -153,6 +156,7 @@ public MEMonitorableMenu(MenuType<?> menuType, int id, Inventory ip,
             this.monitor = null;
         }
         this.powerSource = powerSource;
+        this.journalViewer = journalViewer;
 
         // Create slots for the view cells, in case the terminal host supports those
         if (!hideViewCells() && host instanceof IViewCellStorage) {
@@ -203,25 +207,31 @@ public void broadcastChanges() {
                 }
             }
 
-            if (this.updateHelper.hasChanges()) {
+            if (this.journalViewer != null && this.journalViewer.hasChanges()) {
+                var player = (ServerPlayer) getPlayerInventory().player;
+                var dictionary = StackDictionary.get(player);
+                boolean sent = false;
                 try {
-                    var builder = MEInventoryUpdatePacket
-                            .builder(getStorageChannel(), containerId, updateHelper.isFullUpdate());
+                    var builder = MEInventoryUpdatePacket.builder(getStorageChannel(), containerId,
+                            journalViewer.isFullUpdate(), dictionary.isClientResetPending());
 
-                    var storageList = monitor.getStorageList();
-                    if (this.updateHelper.isFullUpdate()) {
-                        builder.addFull(updateHelper, storageList);
-                    } else {
-                        builder.addChanges(updateHelper, storageList);
-                    }
-
-                    builder.buildAndSend(this::sendPacketToClient);
+                    journalViewer.writeChanges(builder, dictionary);
 
+                    for (var packet : builder.build()) {
+                        sendPacketToClient(packet);
+                        sent = true;
+                    }
+                    dictionary.commit();
                 } catch (Exception e) {
                     AELog.warn(e, "Failed to send incremental inventory update to client");
+                    if (sent) {
+                        // Some of the slots made it to the client, so neither side knows which ones
+                        StackDictionary.reset(player);
+                    } else {
+                        dictionary.rollback();
+                    }
+                    journalViewer.requestFullUpdate();
                 }
-
-                updateHelper.commitChanges();
             }
 
             this.updatePowerStatus();
@@ -304,30 +314,8 @@ private void updateActiveCraftingJobs() {
     @Override
     public void removed(final Player player) {
         super.removed(player);
-        if (this.monitor != null) {
-            this.monitor.removeListener(this);
-        }
-    }
-
-    @Override
-    public boolean isValid(final Object verificationToken) {
-        return true;
-    }
-
-    @Override
-    public void postChange(final IBaseMonitor<T> monitor, final Iterable<T> change,
-            final IActionSource source) {
-        for (T is : change) {
-            this.updateHelper.addChange(is);
-        }
-    }
-
-    @Override
-    public void onListUpdate() {
-        if (isServer()) {
-            // This resets it back to the initial state of requiring a full update,
-            // which will be carried out in the next update tick
-            this.updateHelper.clear();
+        if (this.journalViewer != null) {
+            this.journalViewer.close();
         }
     }
 
@@ -393,9 +381,18 @@ public final void handleInteraction(long serial, InventoryAction action) {
     protected abstract void handleNetworkInteraction(ServerPlayer player, @Nullable T stack,
             InventoryAction action);
 
+    /**
+     * Sends the complete inventory to the client again with the next update.
+     */
+    public void requestFullUpdate() {
+        if (this.journalViewer != null) {
+            this.journalViewer.requestFullUpdate();
+        }
+    }
+
     @Nullable
     protected final T getStackBySerial(long serial) {
-        return updateHelper.getBySerial(serial);
+        return journalViewer != null ? journalViewer.getStackBySerial(serial) : null;
     }
 
     public boolean isPowered() {
@@ -0,0 +1,216 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2021, TeamAppliedEnergistics, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.menu.me.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+
+import appeng.api.storage.data.IAEStack;
+
+/**
+ * Remembers which stacks a client already received, so that terminals can refer to them by a small slot number instead
+ * of sending the full stack again. The dictionary lives as long as the player's connection, so reopening a terminal
+ * only sends references for stacks that were seen before.
+ * <p/>
+ * The dictionary has a fixed number of slots. The server decides which slot a new stack is stored in, evicting the
+ * least recently used stack once all slots are taken, and the client stores stacks in the slot it is told to. Both
+ * sides therefore always agree on the content of every slot, without the client having to report evictions.
+ * <p/>
+ * Slots assigned while building an update only become permanent once the update was sent, see {@link #commit()} and
+ * {@link #rollback()}. If the client nevertheless misses a definition, it drops its copy and asks the server to start
+ * over with an empty dictionary.
+ */
+public final class StackDictionary {
+
+    /**
+     * Number of stacks that are remembered per connection.
+     */
+    public static final int CAPACITY = 1 << 16;
+
+    private static final Map<ServerGamePacketListenerImpl, StackDictionary> DICTIONARIES = new WeakHashMap<>();
+
+    /**
+     * The client's copy of the dictionary for the current connection.
+     */
+    private static final Int2ObjectOpenHashMap<IAEStack> CLIENT_SLOTS = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * Set on the client when its copy no longer matches the server's dictionary, until the server starts over.
+     */
+    private static boolean clientOutOfSync;
+
+    /**
+     * Set on the client when the server has to be asked to start over with an empty dictionary.
+     */
+    private static boolean clientResetRequested;
+
+    /**
+     * Slots assigned to stacks, in order of their last use.
+     */
+    private final Object2IntLinkedOpenHashMap<IAEStack> slots = new Object2IntLinkedOpenHashMap<>();
+
+    private final int capacity;
+
+    private int nextSlot;
+
+    /**
+     * Slots assigned since the last {@link #commit()}, in the order they were assigned.
+     */
+    private final List<Assignment> uncommitted = new ArrayList<>();
+
+    /**
+     * True if the client still has to be told to clear its copy of the dictionary.
+     */
+    private boolean clientResetPending;
+
+    StackDictionary(int capacity) {
+        this.capacity = capacity;
+        this.slots.defaultReturnValue(-1);
+    }
+
+    public static StackDictionary get(ServerPlayer player) {
+        return DICTIONARIES.computeIfAbsent(player.connection, connection -> new StackDictionary(CAPACITY));
+    }
+
+    /**
+     * Replaces the dictionary of the player's connection with an empty one. The next update sent to the client tells
+     * it to clear its copy too.
+     */
+    public static void reset(ServerPlayer player) {
+        var dictionary = new StackDictionary(CAPACITY);
+        dictionary.clientResetPending = true;
+        DICTIONARIES.put(player.connection, dictionary);
+    }
+
+    /**
+     * @return True if the next update has to tell the client to clear its copy of the dictionary.
+     */
+    public boolean isClientResetPending() {
+        return this.clientResetPending;
+    }
+
+    /**
+     * @return The slot in which the client has stored the given stack, or -1 if the client doesn't have it.
+     */
+    public int getSlot(IAEStack stack) {
+        return this.slots.getAndMoveToLast(stack);
+    }
+
+    /**
+     * Assigns a slot to a stack that the client doesn't have yet. The caller must send the stack along with the slot.
+     *
+     * @param stack The stack, which must not be modified afterwards.
+     */
+    public int assignSlot(IAEStack stack) {
+        int slot;
+        IAEStack evicted = null;
+        if (this.nextSlot < this.capacity) {
+            slot = this.nextSlot++;
+        } else {
+            evicted = this.slots.firstKey();
+            slot = this.slots.removeFirstInt();
+        }
+        this.slots.putAndMoveToLast(stack, slot);
+        this.uncommitted.add(new Assignment(stack, slot, evicted));
+        return slot;
+    }
+
+    /**
+     * Makes the slots assigned since the last commit permanent, once the update containing them was sent.
+     */
+    public void commit() {
+        this.uncommitted.clear();
+        this.clientResetPending = false;
+    }
+
+    /**
+     * Undoes the slot assignments since the last commit, because the update containing them never reached the client.
+     * Stacks that were evicted for them are restored as the least recently used ones.
+     */
+    public void rollback() {
+        for (int i = this.uncommitted.size() - 1; i >= 0; i--) {
+            var assignment = this.uncommitted.get(i);
+            this.slots.removeInt(assignment.stack());
+            if (assignment.evicted() != null) {
+                this.slots.putAndMoveToFirst(assignment.evicted(), assignment.slot());
+            } else {
+                this.nextSlot--;
+            }
+        }
+        this.uncommitted.clear();
+    }
+
+    /**
+     * Stores a stack received from the server in the client's copy of the dictionary.
+     */
+    static void defineOnClient(int slot, IAEStack stack) {
+        CLIENT_SLOTS.put(slot, stack);
+    }
+
+    @Nullable
+    static IAEStack lookupOnClient(int slot) {
+        return CLIENT_SLOTS.get(slot);
+    }
+
+    /**
+     * Called on the client when it can no longer trust its copy of the dictionary, i.e. because the server referred to
+     * a slot it doesn't know or an update could not be read completely. The copy is dropped right away, so no stale
+     * stack is shown, and the server is asked to start over once.
+     */
+    public static void markClientOutOfSync() {
+        if (!clientOutOfSync) {
+            clientOutOfSync = true;
+            clientResetRequested = true;
+            CLIENT_SLOTS.clear();
+        }
+    }
+
+    /**
+     * @return True if the client has to ask the server to start over with an empty dictionary. Only returns true once
+     *         per request.
+     */
+    public static boolean pollClientResetRequest() {
+        var requested = clientResetRequested;
+        clientResetRequested = false;
+        return requested;
+    }
+
+    /**
+     * Forgets the client's copy of the dictionary. This has to happen whenever the client connects to a server, since
+     * a new connection starts with an empty dictionary on the server, and whenever the server starts over.
+     */
+    public static void clearClient() {
+        CLIENT_SLOTS.clear();
+        clientOutOfSync = false;
+        clientResetRequested = false;
+    }
+
+    private record Assignment(IAEStack stack, int slot, @Nullable IAEStack evicted) {
+    }
+}
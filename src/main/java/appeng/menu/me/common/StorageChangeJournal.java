@@ -0,0 +1,383 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2021, TeamAppliedEnergistics, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.menu.me.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import appeng.api.networking.security.IActionSource;
+import appeng.api.networking.storage.IBaseMonitor;
+import appeng.api.storage.IMEMonitor;
+import appeng.api.storage.IMEMonitorHandlerReceiver;
+import appeng.api.storage.data.IAEStack;
+import appeng.core.sync.packets.MEInventoryUpdatePacket;
+
+/**
+ * Records the changes of a monitored inventory for all terminals that are viewing it. Each change is resolved against
+ * the inventory once, and each stack is encoded once, no matter how many terminals are open on the inventory. The
+ * terminals only keep their own position in the journal and the entries their client knows about.
+ * <p/>
+ * Serial numbers are assigned by the journal and are shared by all of its viewers.
+ */
+public final class StorageChangeJournal<T extends IAEStack> implements IMEMonitorHandlerReceiver<T> {
+
+    private static final Map<IMEMonitor<?>, StorageChangeJournal<?>> JOURNALS = new IdentityHashMap<>();
+
+    private final IMEMonitor<T> monitor;
+
+    private final List<Viewer<T>> viewers = new ArrayList<>();
+
+    /**
+     * Keys that changed since the journal was last advanced. They have a stack size of 1.
+     */
+    private final Set<T> pendingKeys = new HashSet<>();
+
+    /**
+     * Keys that have been sent to any client. This relies on the fact that stacks are equal iff their type is equal.
+     */
+    private final Map<T, Key<T>> keys = new HashMap<>();
+    private final Long2ObjectOpenHashMap<Key<T>> keysBySerial = new Long2ObjectOpenHashMap<>();
+    private long serial;
+
+    /**
+     * Resolved changes that not all viewers have sent yet. The first of them has the sequence number
+     * {@link #firstSequence}.
+     */
+    private final ArrayList<Change<T>> changes = new ArrayList<>();
+    private long firstSequence;
+
+    private StorageChangeJournal(IMEMonitor<T> monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Starts viewing the given inventory. Make sure to call {@link Viewer#close()} once the viewer is no longer used.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends IAEStack> Viewer<T> subscribe(IMEMonitor<T> monitor) {
+        var journal = (StorageChangeJournal<T>) JOURNALS.get(monitor);
+        if (journal == null) {
+            journal = new StorageChangeJournal<>(monitor);
+            JOURNALS.put(monitor, journal);
+            monitor.addListener(journal, null);
+        }
+
+        var viewer = new Viewer<>(journal);
+        journal.viewers.add(viewer);
+        return viewer;
+    }
+
+    @Override
+    public boolean isValid(Object verificationToken) {
+        return !this.viewers.isEmpty();
+    }
+
+    @Override
+    public void postChange(IBaseMonitor<T> monitor, Iterable<T> change, IActionSource actionSource) {
+        for (T stack : change) {
+            // Ensure the stack size is not 0, so the key can be stored
+            this.pendingKeys.add(IAEStack.copy(stack, 1));
+        }
+    }
+
+    @Override
+    public void onListUpdate() {
+        // Every viewer will resend the whole inventory, so neither the changes nor the serials are needed anymore
+        for (var viewer : this.viewers) {
+            viewer.fullUpdate = true;
+        }
+        this.pendingKeys.clear();
+        this.firstSequence = getEndSequence();
+        this.changes.clear();
+        this.keys.clear();
+        this.keysBySerial.clear();
+    }
+
+    private long getEndSequence() {
+        return this.firstSequence + this.changes.size();
+    }
+
+    /**
+     * Resolves the pending keys against the inventory and records the result. Only the first viewer to update in a
+     * tick actually does this.
+     */
+    private void advance() {
+        if (this.pendingKeys.isEmpty()) {
+            return;
+        }
+
+        var storageList = this.monitor.getStorageList();
+        for (T pending : this.pendingKeys) {
+            T stored = storageList.findPrecise(pending);
+            if (stored == null || !stored.isMeaningful()) {
+                var key = this.keys.get(pending);
+                if (key != null) {
+                    // This happens when an update is queued but the stack is no longer stored
+                    key.removed = true;
+                    recordChange(new Change<>(key, 0, 0, false));
+                }
+            } else {
+                var key = getOrCreateKey(pending);
+                recordChange(new Change<>(key, stored.getStackSize(), stored.getCountRequestable(),
+                        stored.isCraftable()));
+            }
+        }
+        this.pendingKeys.clear();
+    }
+
+    private void recordChange(Change<T> change) {
+        change.key().lastSequence = getEndSequence();
+        this.changes.add(change);
+    }
+
+    private Key<T> getOrCreateKey(T stack) {
+        var key = this.keys.get(stack);
+        if (key == null) {
+            key = new Key<>(IAEStack.copy(stack, 1), ++this.serial);
+            this.keys.put(key.stack, key);
+            this.keysBySerial.put(key.serial, key);
+        }
+        key.removed = false;
+        return key;
+    }
+
+    /**
+     * Drops the changes that every viewer has already sent, and forgets about keys whose last change was a removal.
+     */
+    private void trim() {
+        long minSequence = getEndSequence();
+        for (var viewer : this.viewers) {
+            if (!viewer.fullUpdate) {
+                minSequence = Math.min(minSequence, viewer.cursor);
+            }
+        }
+
+        int count = (int) (minSequence - this.firstSequence);
+        for (int i = 0; i < count; i++) {
+            var key = this.changes.get(i).key();
+            if (key.removed && key.lastSequence == this.firstSequence + i) {
+                this.keys.remove(key.stack);
+                this.keysBySerial.remove(key.serial);
+            }
+        }
+        this.changes.subList(0, count).clear();
+        this.firstSequence = minSequence;
+    }
+
+    private void unsubscribe(Viewer<T> viewer) {
+        if (!this.viewers.remove(viewer)) {
+            return;
+        }
+        if (this.viewers.isEmpty()) {
+            this.monitor.removeListener(this);
+            JOURNALS.remove(this.monitor);
+        } else {
+            trim();
+        }
+    }
+
+    /**
+     * The state of a single terminal viewing the journal.
+     */
+    public static final class Viewer<T extends IAEStack> {
+        private final StorageChangeJournal<T> journal;
+
+        /**
+         * Sequence number of the next change to send.
+         */
+        private long cursor;
+
+        /**
+         * Indicates that a full update should be sent.
+         */
+        private boolean fullUpdate = true;
+
+        /**
+         * Serials of the stacks that are known to the client.
+         */
+        private final LongOpenHashSet knownSerials = new LongOpenHashSet();
+
+        private Viewer(StorageChangeJournal<T> journal) {
+            this.journal = journal;
+        }
+
+        public boolean hasChanges() {
+            this.journal.advance();
+            return this.fullUpdate || this.cursor < this.journal.getEndSequence();
+        }
+
+        public boolean isFullUpdate() {
+            return this.fullUpdate;
+        }
+
+        /**
+         * Sends the complete inventory again on the next update, i.e. because the client lost track of it.
+         */
+        public void requestFullUpdate() {
+            this.fullUpdate = true;
+        }
+
+        /**
+         * Adds everything this viewer's client hasn't seen yet to the given packet builder. Stacks are only included
+         * the first time the client sees them, afterwards they are referred to by their serial. Stacks that are in the
+         * client's dictionary are referred to by their dictionary slot instead of being sent again.
+         */
+        public void writeChanges(MEInventoryUpdatePacket.Builder<T> builder, StackDictionary dictionary) {
+            writeChanges(new ChangeSink<>() {
+                @Override
+                public void addNew(Key<T> key, long storedAmount, long requestableAmount, boolean craftable) {
+                    addNewStack(builder, dictionary, key, storedAmount, requestableAmount, craftable);
+                }
+
+                @Override
+                public void update(long serial, long storedAmount, long requestableAmount, boolean craftable) {
+                    builder.add(serial, null, -1, storedAmount, requestableAmount, craftable);
+                }
+            });
+        }
+
+        void writeChanges(ChangeSink<T> sink) {
+            var journal = this.journal;
+            journal.advance();
+
+            if (this.fullUpdate) {
+                this.knownSerials.clear();
+                for (T stack : journal.monitor.getStorageList()) {
+                    if (!stack.isMeaningful()) {
+                        continue;
+                    }
+                    var key = journal.getOrCreateKey(stack);
+                    this.knownSerials.add(key.serial);
+                    sink.addNew(key, stack.getStackSize(), stack.getCountRequestable(), stack.isCraftable());
+                }
+                this.fullUpdate = false;
+            } else {
+                for (long seq = this.cursor; seq < journal.getEndSequence(); seq++) {
+                    var change = journal.changes.get((int) (seq - journal.firstSequence));
+                    var key = change.key();
+                    if (!change.isMeaningful()) {
+                        // Only tell the client about removals of stacks it knows
+                        if (this.knownSerials.remove(key.serial)) {
+                            sink.update(key.serial, 0, 0, false);
+                        }
+                    } else if (this.knownSerials.add(key.serial)) {
+                        sink.addNew(key, change.storedAmount(), change.requestableAmount(), change.craftable());
+                    } else {
+                        sink.update(key.serial, change.storedAmount(), change.requestableAmount(),
+                                change.craftable());
+                    }
+                }
+            }
+
+            this.cursor = journal.getEndSequence();
+            journal.trim();
+        }
+
+        private static <T extends IAEStack> void addNewStack(MEInventoryUpdatePacket.Builder<T> builder,
+                StackDictionary dictionary, Key<T> key, long storedAmount, long requestableAmount,
+                boolean craftable) {
+            int slot = dictionary.getSlot(key.stack);
+            if (slot >= 0) {
+                builder.add(key.serial, null, slot, storedAmount, requestableAmount, craftable);
+            } else {
+                slot = dictionary.assignSlot(key.stack);
+                builder.add(key.serial, key.getEncodedStack(), slot, storedAmount, requestableAmount, craftable);
+            }
+        }
+
+        /**
+         * @return The stack the client refers to with the given serial, or null if the client can't know about it.
+         */
+        @Nullable
+        public T getStackBySerial(long serial) {
+            if (!this.knownSerials.contains(serial)) {
+                return null;
+            }
+            var key = this.journal.keysBySerial.get(serial);
+            return key != null ? key.stack : null;
+        }
+
+        public void close() {
+            this.journal.unsubscribe(this);
+        }
+    }
+
+    /**
+     * Receives the entries a viewer has to send to its client.
+     */
+    interface ChangeSink<T extends IAEStack> {
+        /**
+         * Called for a stack the client doesn't know by its serial yet.
+         */
+        void addNew(Key<T> key, long storedAmount, long requestableAmount, boolean craftable);
+
+        /**
+         * Called for a stack the client already knows by its serial. All amounts are zero if it was removed.
+         */
+        void update(long serial, long storedAmount, long requestableAmount, boolean craftable);
+    }
+
+    static final class Key<T extends IAEStack> {
+        private final T stack;
+        private final long serial;
+        // The stack encoded for the client, shared by all viewers
+        @Nullable
+        private byte[] encodedStack;
+        // True if the last recorded change for this key removed it
+        private boolean removed;
+        private long lastSequence = -1;
+
+        private Key(T stack, long serial) {
+            this.stack = stack;
+            this.serial = serial;
+        }
+
+        T getStack() {
+            return this.stack;
+        }
+
+        long getSerial() {
+            return this.serial;
+        }
+
+        private byte[] getEncodedStack() {
+            if (this.encodedStack == null) {
+                this.encodedStack = GridInventoryEntry.encodeStack(this.stack);
+            }
+            return this.encodedStack;
+        }
+    }
+
+    private record Change<T extends IAEStack> (Key<T> key, long storedAmount, long requestableAmount,
+            boolean craftable) {
+        boolean isMeaningful() {
+            return this.storedAmount > 0 || this.requestableAmount > 0 || this.craftable;
+        }
+    }
+}
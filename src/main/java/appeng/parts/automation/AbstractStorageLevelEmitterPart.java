@@ -18,6 +18,8 @@
 
 package appeng.parts.automation;
 
+import java.util.OptionalLong;
+
 import javax.annotation.Nullable;
 
 import net.minecraft.world.item.ItemStack;
@@ -40,6 +42,7 @@
 import appeng.api.storage.IStorageChannel;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IAEStackList;
+import appeng.me.service.NetworkMonitor;
 
 /**
  * Abstract level emitter logic for storage-based level emitters (item and fluid).
@@ -193,16 +196,28 @@ private void updateReportingValue(final IMEMonitor<T> monitor) {
         var myStack = getConfiguredStack();
 
         if (myStack == null) {
-            this.lastReportedValue = 0;
-            for (var st : monitor.getStorageList()) {
-                this.lastReportedValue += st.getStackSize();
+            if (monitor instanceof NetworkMonitor<T> networkMonitor) {
+                this.lastReportedValue = networkMonitor.getTotalAmount();
+            } else {
+                this.lastReportedValue = 0;
+                for (var st : monitor.getStorageList()) {
+                    this.lastReportedValue += st.getStackSize();
+                }
             }
         } else if (this.getInstalledUpgrades(Upgrades.FUZZY) > 0) {
-            this.lastReportedValue = 0;
             final FuzzyMode fzMode = this.getConfigManager().getSetting(Settings.FUZZY_MODE);
-            var fuzzyList = monitor.getStorageList().findFuzzy(myStack, fzMode);
-            for (var st : fuzzyList) {
-                this.lastReportedValue += st.getStackSize();
+            // The network keeps totals for searches that match every variant of an item
+            var total = monitor instanceof NetworkMonitor<T> networkMonitor
+                    ? networkMonitor.getFuzzyAmount(myStack, fzMode)
+                    : OptionalLong.empty();
+            if (total.isPresent()) {
+                this.lastReportedValue = total.getAsLong();
+            } else {
+                this.lastReportedValue = 0;
+                var fuzzyList = monitor.getStorageList().findFuzzy(myStack, fzMode);
+                for (var st : fuzzyList) {
+                    this.lastReportedValue += st.getStackSize();
+                }
             }
         } else {
             var r = monitor.getStorageList().findPrecise(myStack);
@@ -33,6 +33,7 @@
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.util.LazyOptional;
 
+import appeng.api.networking.IGridNodeListener;
 import appeng.api.parts.IPartCollisionHelper;
 import appeng.api.parts.IPartModel;
 import appeng.api.util.AECableType;
@@ -94,6 +95,12 @@ public void writeToNBT(final CompoundTag data) {
         this.duality.writeToNBT(data);
     }
 
+    @Override
+    protected void onMainNodeStateChanged(IGridNodeListener.State reason) {
+        super.onMainNodeStateChanged(reason);
+        this.duality.onMainNodeStateChanged();
+    }
+
     @Override
     public void addToWorld() {
         super.addToWorld();
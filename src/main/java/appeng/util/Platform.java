@@ -545,6 +545,13 @@ public static <T extends IAEStack> T poweredExtraction(final IEnergySource energ
         return poweredExtraction(energy, cell, request, src, Actionable.MODULATE);
     }
 
+    /**
+     * Extracts from an inventory while consuming the power needed to transport the extracted amount.
+     * <p/>
+     * The power is reserved up front by simulating its extraction for the whole request, which is cheap compared to
+     * traversing the inventory. The inventory is then only traversed once for the affordable amount, and the power is
+     * committed for what was actually extracted.
+     */
     public static <T extends IAEStack> T poweredExtraction(final IEnergySource energy, final IMEInventory<T> cell,
             final T request, final IActionSource src, final Actionable mode) {
         Preconditions.checkNotNull(energy);
@@ -553,36 +560,19 @@ public static <T extends IAEStack> T poweredExtraction(final IEnergySource energ
         Preconditions.checkNotNull(src);
         Preconditions.checkNotNull(mode);
 
-        final T possible = cell.extractItems(IAEStack.copy(request), Actionable.SIMULATE, src);
-
-        long retrieved = 0;
-        if (possible != null) {
-            retrieved = possible.getStackSize();
+        final long itemToExtract = getAffordableAmount(energy, cell, request.getStackSize());
+        if (itemToExtract <= 0) {
+            return null;
         }
 
-        final double energyFactor = Math.max(1.0, cell.getChannel().transferFactor());
-        final double availablePower = energy.extractAEPower(retrieved / energyFactor, Actionable.SIMULATE,
-                PowerMultiplier.CONFIG);
-        final long itemToExtract = Math.min((long) (availablePower * energyFactor + 0.9), retrieved);
-
-        if (itemToExtract > 0) {
-            if (mode == Actionable.MODULATE) {
-                energy.extractAEPower(retrieved / energyFactor, Actionable.MODULATE, PowerMultiplier.CONFIG);
-                possible.setStackSize(itemToExtract);
-                final T ret = cell.extractItems(possible, Actionable.MODULATE, src);
+        final T ret = cell.extractItems(IAEStack.copy(request, itemToExtract), mode, src);
 
-                if (ret != null) {
-                    src.player()
-                            .ifPresent(player -> AeStats.ItemsExtracted.addToPlayer(player, (int) ret.getStackSize()));
-                }
-                return ret;
-            } else {
-                possible.setStackSize(itemToExtract);
-                return possible;
-            }
+        if (ret != null && mode == Actionable.MODULATE) {
+            commitTransferPower(energy, cell, ret.getStackSize());
+            src.player().ifPresent(player -> AeStats.ItemsExtracted.addToPlayer(player, (int) ret.getStackSize()));
         }
 
-        return null;
+        return ret;
     }
 
     public static <T extends IAEStack> T poweredInsert(final IEnergySource energy, final IMEInventory<T> cell,
@@ -590,6 +580,11 @@ public static <T extends IAEStack> T poweredInsert(final IEnergySource energy, f
         return poweredInsert(energy, cell, input, src, Actionable.MODULATE);
     }
 
+    /**
+     * Inserts into an inventory while consuming the power needed to transport the inserted amount. See
+     * {@link #poweredExtraction(IEnergySource, IMEInventory, IAEStack, IActionSource, Actionable)} for how the power is
+     * reserved and committed around a single inventory traversal.
+     */
     public static <T extends IAEStack> T poweredInsert(final IEnergySource energy, final IMEInventory<T> cell,
             final T input, final IActionSource src, final Actionable mode) {
         Preconditions.checkNotNull(energy);
@@ -598,53 +593,48 @@ public static <T extends IAEStack> T poweredInsert(final IEnergySource energy, f
         Preconditions.checkNotNull(src);
         Preconditions.checkNotNull(mode);
 
-        final T overflow = cell.injectItems(IAEStack.copy(input), Actionable.SIMULATE, src);
-
-        long transferAmount = input.getStackSize();
-        if (overflow != null) {
-            transferAmount -= overflow.getStackSize();
+        final long original = input.getStackSize();
+        final long itemToAdd = getAffordableAmount(energy, cell, original);
+        if (itemToAdd <= 0) {
+            return input;
         }
 
-        final double energyFactor = Math.max(1.0, cell.getChannel().transferFactor());
-        final double availablePower = energy.extractAEPower(transferAmount / energyFactor, Actionable.SIMULATE,
-                PowerMultiplier.CONFIG);
-        final long itemToAdd = Math.min((long) (availablePower * energyFactor + 0.9), transferAmount);
-
-        if (itemToAdd > 0) {
-            if (mode == Actionable.MODULATE) {
-                energy.extractAEPower(transferAmount / energyFactor, Actionable.MODULATE, PowerMultiplier.CONFIG);
-                if (itemToAdd < input.getStackSize()) {
-                    final long original = input.getStackSize();
-                    final T leftover = IAEStack.copy(input);
-                    final T split = IAEStack.copy(input);
-
-                    leftover.decStackSize(itemToAdd);
-                    split.setStackSize(itemToAdd);
-                    IAEStack.add(leftover, cell.injectItems(split, Actionable.MODULATE, src));
-
-                    src.player().ifPresent(player -> {
-                        final long diff = original - leftover.getStackSize();
-                        AeStats.ItemsInserted.addToPlayer(player, (int) diff);
-                    });
-
-                    return leftover;
-                }
+        final T overflow;
+        if (itemToAdd < original) {
+            overflow = cell.injectItems(IAEStack.copy(input, itemToAdd), mode, src);
+        } else {
+            overflow = cell.injectItems(mode == Actionable.MODULATE ? input : IAEStack.copy(input), mode, src);
+        }
 
-                final T ret = cell.injectItems(input, Actionable.MODULATE, src);
+        final long inserted = itemToAdd - IAEStack.getStackSizeOrZero(overflow);
 
-                src.player().ifPresent(player -> {
-                    final long diff = ret == null ? input.getStackSize() : input.getStackSize() - ret.getStackSize();
-                    AeStats.ItemsInserted.addToPlayer(player, (int) diff);
-                });
+        if (mode == Actionable.MODULATE && inserted > 0) {
+            commitTransferPower(energy, cell, inserted);
+            src.player().ifPresent(player -> AeStats.ItemsInserted.addToPlayer(player, (int) inserted));
+        }
 
-                return ret;
-            } else {
-                var ret = IAEStack.copy(input, input.getStackSize() - itemToAdd);
-                return ret != null && ret.getStackSize() > 0 ? ret : null;
-            }
+        if (itemToAdd == original) {
+            return overflow;
         }
+        return IAEStack.copy(input, original - inserted);
+    }
 
-        return input;
+    /**
+     * @return How much of the given amount can be transported into or out of the inventory with the power that is
+     *         currently available, without consuming that power.
+     */
+    private static long getAffordableAmount(final IEnergySource energy, final IMEInventory<?> cell,
+            final long amount) {
+        final double energyFactor = Math.max(1.0, cell.getChannel().transferFactor());
+        final double availablePower = energy.extractAEPower(amount / energyFactor, Actionable.SIMULATE,
+                PowerMultiplier.CONFIG);
+        return Math.min((long) (availablePower * energyFactor + 0.9), amount);
+    }
+
+    private static void commitTransferPower(final IEnergySource energy, final IMEInventory<?> cell,
+            final long transferred) {
+        final double energyFactor = Math.max(1.0, cell.getChannel().transferFactor());
+        energy.extractAEPower(transferred / energyFactor, Actionable.MODULATE, PowerMultiplier.CONFIG);
     }
 
     /**
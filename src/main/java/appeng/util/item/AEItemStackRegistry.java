@@ -23,41 +23,135 @@
 
 package appeng.util.item;
 
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.WeakHashMap;
 
 import javax.annotation.Nonnull;
 
 import net.minecraft.world.item.ItemStack;
 
+/**
+ * Interns {@link AESharedItemStack}s, so that equal item stacks share a single definition.
+ * <p/>
+ * This is used from the server thread and from crafting calculations running in the background, so the registry is
+ * split into shards that are locked independently. Registered stacks are held weakly and are removed once they are no
+ * longer used.
+ */
 public final class AEItemStackRegistry {
-    private static final WeakHashMap<AESharedItemStack, WeakReference<AESharedItemStack>> REGISTRY = new WeakHashMap<>();
+    private static final int SHARD_BITS = 6;
+    private static final Shard[] SHARDS = new Shard[1 << SHARD_BITS];
+
+    static {
+        for (int i = 0; i < SHARDS.length; i++) {
+            SHARDS[i] = new Shard();
+        }
+    }
 
     private AEItemStackRegistry() {
     }
 
-    public static synchronized AESharedItemStack getRegisteredStack(final @Nonnull ItemStack itemStack) {
+    /**
+     * Returns the shared stack for the given item stack, registering a copy of it if none exists yet. The given stack
+     * is not modified, and looking up an already registered stack does not allocate.
+     */
+    public static AESharedItemStack getRegisteredStack(final @Nonnull ItemStack itemStack) {
         if (itemStack.isEmpty()) {
             throw new IllegalArgumentException("stack cannot be empty");
         }
 
-        int oldStackSize = itemStack.getCount();
-        itemStack.setCount(1);
+        // Spread the hash so that the shard (high bits) and the bucket within it (low bits) are independent
+        final int hash = AESharedItemStack.hashCode(itemStack) * 0x9E3779B9;
+        return SHARDS[hash >>> (Integer.SIZE - SHARD_BITS)].getRegisteredStack(itemStack, hash);
+    }
+
+    private static final class Shard {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private final ReferenceQueue<AESharedItemStack> queue = new ReferenceQueue<>();
+        private Entry[] table = new Entry[INITIAL_CAPACITY];
+        private int size;
+
+        synchronized AESharedItemStack getRegisteredStack(final ItemStack itemStack, final int hash) {
+            this.expungeStaleEntries();
+
+            int index = hash & (this.table.length - 1);
+            for (Entry e = this.table[index]; e != null; e = e.next) {
+                if (e.hash == hash) {
+                    final AESharedItemStack registered = e.get();
+                    if (registered != null && registered.matches(itemStack)) {
+                        return registered;
+                    }
+                }
+            }
 
-        AESharedItemStack search = new AESharedItemStack(itemStack);
-        WeakReference<AESharedItemStack> weak = REGISTRY.get(search);
-        AESharedItemStack ret = null;
+            final ItemStack definition = itemStack.copy();
+            definition.setCount(1);
+            final AESharedItemStack registered = new AESharedItemStack(definition);
 
-        if (weak != null) {
-            ret = weak.get();
+            if (this.size >= this.table.length * 3 / 4) {
+                this.resize();
+                index = hash & (this.table.length - 1);
+            }
+            this.table[index] = new Entry(registered, hash, this.table[index], this.queue);
+            this.size++;
+
+            return registered;
         }
 
-        if (ret == null) {
-            ret = new AESharedItemStack(itemStack.copy());
-            REGISTRY.put(ret, new WeakReference<>(ret));
+        private void expungeStaleEntries() {
+            for (Object ref; (ref = this.queue.poll()) != null;) {
+                final Entry stale = (Entry) ref;
+                final int index = stale.hash & (this.table.length - 1);
+
+                Entry prev = null;
+                for (Entry e = this.table[index]; e != null; prev = e, e = e.next) {
+                    if (e == stale) {
+                        if (prev == null) {
+                            this.table[index] = e.next;
+                        } else {
+                            prev.next = e.next;
+                        }
+                        this.size--;
+                        break;
+                    }
+                }
+            }
         }
-        itemStack.setCount(oldStackSize);
 
-        return ret;
+        private void resize() {
+            final Entry[] oldTable = this.table;
+            final Entry[] newTable = new Entry[oldTable.length * 2];
+
+            // Cleared entries are dropped here, their pending queue entries will then no longer be found
+            int newSize = 0;
+            for (Entry head : oldTable) {
+                Entry e = head;
+                while (e != null) {
+                    final Entry next = e.next;
+                    if (e.get() != null) {
+                        final int index = e.hash & (newTable.length - 1);
+                        e.next = newTable[index];
+                        newTable[index] = e;
+                        newSize++;
+                    }
+                    e = next;
+                }
+            }
+
+            this.table = newTable;
+            this.size = newSize;
+        }
+    }
+
+    private static final class Entry extends WeakReference<AESharedItemStack> {
+        private final int hash;
+        private Entry next;
+
+        Entry(final AESharedItemStack referent, final int hash, final Entry next,
+                final ReferenceQueue<AESharedItemStack> queue) {
+            super(referent, queue);
+            this.hash = hash;
+            this.next = next;
+        }
     }
 }
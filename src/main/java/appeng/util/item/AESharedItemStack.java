@@ -83,10 +83,33 @@ public boolean equals(final Object obj) {
     }
 
     private int makeHashCode() {
-        return Objects.hash(
-                this.itemId,
-                this.itemDamage,
-                this.itemStack.hasTag() ? this.itemStack.getTag() : 0);
+        return hashCode(this.itemId, this.itemDamage, this.itemStack);
+    }
+
+    /**
+     * Computes the hash code that a shared stack for the given item stack would have, without creating one.
+     */
+    static int hashCode(final ItemStack itemStack) {
+        return hashCode(Item.getId(itemStack.getItem()), itemStack.getDamageValue(), itemStack);
+    }
+
+    // Same as Objects.hash(itemId, itemDamage, tag or 0), but without boxing
+    private static int hashCode(final int itemId, final int itemDamage, final ItemStack itemStack) {
+        int result = 31 + itemId;
+        result = 31 * result + itemDamage;
+        return 31 * result + (itemStack.hasTag() ? itemStack.getTag().hashCode() : 0);
+    }
+
+    /**
+     * Checks whether the given item stack matches this shared stack, regardless of its count.
+     */
+    boolean matches(final ItemStack other) {
+        if (this.itemStack == other) {
+            return true;
+        }
+        return this.itemStack.getItem() == other.getItem()
+                && Objects.equals(this.itemStack.getTag(), other.getTag())
+                && this.itemStack.areCapsCompatible(other);
     }
 
 }
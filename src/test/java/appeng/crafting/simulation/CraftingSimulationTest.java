@@ -197,6 +197,33 @@ public void testDamagedOutput(boolean branching) {
         // note that the pickaxe is only crafted once, and then reused!
     }
 
+    @Test
+    public void testMultipleBranchesInBulk() {
+        var env = new SimulationEnv();
+
+        var ingot = item(Items.IRON_INGOT);
+        var ore = item(Items.IRON_ORE);
+        var nugget = item(Items.IRON_NUGGET);
+
+        var smeltingPattern = env.addPattern(new ProcessingPatternBuilder(ingot)
+                .addPreciseInput(1, ore)
+                .build());
+        var nuggetPattern = env.addPattern(new ProcessingPatternBuilder(ingot)
+                .addPreciseInput(9, nugget)
+                .build());
+
+        env.addStoredItem(mult(ore, 60));
+        env.addStoredItem(mult(nugget, 1000));
+
+        // The first branch can only make 60 ingots, the second one has to make the rest.
+        var plan = env.runSimulation(mult(ingot, 150));
+        assertThatPlan(plan)
+                .succeeded()
+                .patternsMatch(smeltingPattern, 60, nuggetPattern, 90)
+                .emittedMatch()
+                .usedMatch(mult(ore, 60), mult(nugget, 810));
+    }
+
     private static IAEItemStack item(Item item) {
         return AEItemStack.fromItemStack(new ItemStack(item));
     }
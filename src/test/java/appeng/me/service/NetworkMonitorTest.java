@@ -0,0 +1,201 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2021, TeamAppliedEnergistics, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoSettings;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.material.Fluids;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+import net.minecraftforge.fluids.capability.templates.FluidTank;
+import net.minecraftforge.items.ItemStackHandler;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.networking.storage.IBaseMonitor;
+import appeng.api.storage.IMEInventory;
+import appeng.api.storage.IMEMonitorHandlerReceiver;
+import appeng.api.storage.StorageChannels;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IAEStack;
+import appeng.me.helpers.BaseActionSource;
+import appeng.me.storage.FluidHandlerAdapter;
+import appeng.me.storage.ItemHandlerAdapter;
+import appeng.me.storage.MEInventoryHandler;
+import appeng.util.BootstrapMinecraft;
+import appeng.util.fluid.AEFluidStack;
+import appeng.util.item.AEItemStack;
+
+/**
+ * Checks that changes made through a storage bus are counted once, even though the storage bus reports the changes it
+ * finds in the external inventory to the network as well.
+ */
+@BootstrapMinecraft
+@MockitoSettings
+class NetworkMonitorTest {
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    StorageService service;
+
+    final IActionSource src = new BaseActionSource();
+
+    final ItemStackHandler chest = new ItemStackHandler(27);
+
+    final ItemHandlerAdapter itemAdapter = new ItemHandlerAdapter(this.chest) {
+        @Override
+        protected void onInjectOrExtract() {
+        }
+    };
+
+    final IAEItemStack sticks = AEItemStack.fromItemStack(new ItemStack(Items.STICK));
+
+    @Test
+    void testItemsInjectedThroughStorageBusAreCountedOnce() {
+        var monitor = connect(this.itemAdapter);
+        this.itemAdapter.onTick();
+        assertThat(monitor.getStorageList().isEmpty()).isTrue();
+
+        monitor.injectItems(IAEStack.copy(this.sticks, 10), Actionable.MODULATE, this.src);
+        assertThat(getStored(monitor, this.sticks)).isEqualTo(10);
+
+        this.itemAdapter.onTick();
+        assertThat(getStored(monitor, this.sticks)).isEqualTo(10);
+    }
+
+    @Test
+    void testItemsExtractedThroughStorageBusAreCountedOnce() {
+        this.chest.setStackInSlot(3, new ItemStack(Items.STICK, 10));
+        var monitor = connect(this.itemAdapter);
+        this.itemAdapter.onTick();
+        assertThat(getStored(monitor, this.sticks)).isEqualTo(10);
+
+        monitor.extractItems(IAEStack.copy(this.sticks, 4), Actionable.MODULATE, this.src);
+        assertThat(getStored(monitor, this.sticks)).isEqualTo(6);
+
+        this.itemAdapter.onTick();
+        assertThat(getStored(monitor, this.sticks)).isEqualTo(6);
+    }
+
+    @Test
+    void testItemsInjectedBeforeFirstScanAreCountedOnce() {
+        this.chest.setStackInSlot(0, new ItemStack(Items.STICK, 5));
+        var monitor = connect(this.itemAdapter);
+        assertThat(monitor.getStorageList().isEmpty()).isTrue();
+
+        monitor.injectItems(IAEStack.copy(this.sticks, 10), Actionable.MODULATE, this.src);
+
+        // The first scan only reports the sticks that were there before
+        this.itemAdapter.onTick();
+        assertThat(getStored(monitor, this.sticks)).isEqualTo(15);
+    }
+
+    @Test
+    void testChangesOutsideOfNetworkAreStillReported() {
+        var monitor = connect(this.itemAdapter);
+        this.itemAdapter.onTick();
+
+        monitor.injectItems(IAEStack.copy(this.sticks, 10), Actionable.MODULATE, this.src);
+        this.chest.insertItem(5, new ItemStack(Items.STICK, 7), false);
+        this.itemAdapter.onTick();
+
+        assertThat(getStored(monitor, this.sticks)).isEqualTo(17);
+    }
+
+    @Test
+    void testChangesOutsideOfNetworkToTheSameSlotAreStillReported() {
+        var monitor = connect(this.itemAdapter);
+        this.itemAdapter.onTick();
+
+        monitor.injectItems(IAEStack.copy(this.sticks, 10), Actionable.MODULATE, this.src);
+        this.chest.insertItem(0, new ItemStack(Items.STICK, 7), false);
+
+        // The network tops up the slot that it already knows to hold sticks
+        monitor.injectItems(IAEStack.copy(this.sticks, 10), Actionable.MODULATE, this.src);
+        assertThat(this.chest.getStackInSlot(0).getCount()).isEqualTo(27);
+
+        this.itemAdapter.onTick();
+        assertThat(getStored(monitor, this.sticks)).isEqualTo(27);
+    }
+
+    @Test
+    void testFluidsInjectedAndExtractedThroughStorageBusAreCountedOnce() {
+        var tank = new FluidTank(16000);
+        var adapter = new FluidHandlerAdapter(tank) {
+            @Override
+            protected void onInjectOrExtract() {
+            }
+        };
+        var water = AEFluidStack.fromFluidStack(new FluidStack(Fluids.WATER, 1));
+        var monitor = connect(adapter);
+        adapter.onTick();
+
+        monitor.injectItems(IAEStack.copy(water, 4000), Actionable.MODULATE, this.src);
+        adapter.onTick();
+        assertThat(getStored(monitor, water)).isEqualTo(4000);
+
+        monitor.extractItems(IAEStack.copy(water, 1000), Actionable.MODULATE, this.src);
+        adapter.onTick();
+        assertThat(getStored(monitor, water)).isEqualTo(3000);
+
+        tank.fill(new FluidStack(Fluids.WATER, 500), IFluidHandler.FluidAction.EXECUTE);
+        monitor.injectItems(IAEStack.copy(water, 1000), Actionable.MODULATE, this.src);
+        adapter.onTick();
+        assertThat(getStored(monitor, water)).isEqualTo(4500);
+    }
+
+    /**
+     * Creates a network monitor for a network that consists of a single storage bus attached to the given adapter.
+     * Like the storage bus, the changes reported by the adapter are posted to the monitor.
+     */
+    private <T extends IAEStack, A extends IMEInventory<T> & IBaseMonitor<T>> NetworkMonitor<T> connect(A adapter) {
+        var channel = adapter.getChannel();
+        var monitor = new NetworkMonitor<>(this.service, channel);
+        var handler = new MEInventoryHandler<>(adapter, channel);
+        when(this.service.getInventoryHandler(channel)).thenReturn(handler);
+
+        adapter.addListener(new IMEMonitorHandlerReceiver<>() {
+            @Override
+            public boolean isValid(Object verificationToken) {
+                return verificationToken == handler;
+            }
+
+            @Override
+            public void postChange(IBaseMonitor<T> adapterMonitor, Iterable<T> change, IActionSource actionSource) {
+                monitor.postChange(true, change, actionSource);
+            }
+
+            @Override
+            public void onListUpdate() {
+            }
+        }, handler);
+        return monitor;
+    }
+
+    private static <T extends IAEStack> long getStored(NetworkMonitor<T> monitor, T what) {
+        return IAEStack.getStackSizeOrZero(monitor.getStorageList().findPrecise(what));
+    }
+}
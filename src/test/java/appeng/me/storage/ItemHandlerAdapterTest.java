@@ -0,0 +1,73 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2021, TeamAppliedEnergistics, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraftforge.items.ItemStackHandler;
+
+import appeng.api.config.Actionable;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.me.helpers.BaseActionSource;
+import appeng.util.BootstrapMinecraft;
+import appeng.util.item.AEItemStack;
+
+@BootstrapMinecraft
+class ItemHandlerAdapterTest {
+
+    private static final int SLOTS = 1000;
+
+    int insertCalls;
+
+    final ItemStackHandler inventory = new ItemStackHandler(SLOTS) {
+        @Override
+        public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
+            insertCalls++;
+            return super.insertItem(slot, stack, simulate);
+        }
+    };
+
+    final ItemHandlerAdapter adapter = new ItemHandlerAdapter(this.inventory) {
+        @Override
+        protected void onInjectOrExtract() {
+        }
+    };
+
+    @Test
+    void testFullInventoryOnlyVisitsIndexedSlots() {
+        for (int slot = 0; slot < SLOTS; slot++) {
+            this.inventory.setStackInSlot(slot, new ItemStack(slot == 500 ? Items.STICK : Items.STONE, 64));
+        }
+        this.adapter.onTick();
+
+        var sticks = stack(Items.STICK, 10);
+        assertThat(this.adapter.injectItems(sticks, Actionable.MODULATE, new BaseActionSource()))
+                .isEqualTo(sticks);
+        assertThat(this.insertCalls).isEqualTo(1);
+    }
+
+    private static IAEItemStack stack(Item item, int count) {
+        return AEItemStack.fromItemStack(new ItemStack(item, count));
+    }
+}
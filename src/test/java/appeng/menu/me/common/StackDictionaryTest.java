@@ -0,0 +1,187 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2021, TeamAppliedEnergistics, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.menu.me.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.Unpooled;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import appeng.api.storage.StorageChannels;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.util.BootstrapMinecraft;
+import appeng.util.item.AEItemStack;
+
+@BootstrapMinecraft
+class StackDictionaryTest {
+
+    final IAEItemStack stick = stack(Items.STICK);
+    final IAEItemStack stone = stack(Items.STONE);
+    final IAEItemStack dirt = stack(Items.DIRT);
+
+    @BeforeEach
+    @AfterEach
+    void clearClient() {
+        StackDictionary.clearClient();
+    }
+
+    @Test
+    void testReferenceResolvesToDefinedStack() {
+        var dictionary = new StackDictionary(16);
+
+        var definition = sendToClient(dictionary, stick);
+        assertThat(definition.stack).isEqualTo(stick);
+
+        var reference = sendToClient(dictionary, stick);
+        assertThat(reference.stack).isEqualTo(stick);
+        assertThat(reference.bytes).isLessThan(definition.bytes);
+    }
+
+    @Test
+    void testLeastRecentlyUsedStackIsEvicted() {
+        var dictionary = new StackDictionary(2);
+        int stickSlot = dictionary.assignSlot(stick);
+        int stoneSlot = dictionary.assignSlot(stone);
+
+        // Using the stick makes the stone the least recently used stack
+        assertThat(dictionary.getSlot(stick)).isEqualTo(stickSlot);
+        assertThat(dictionary.assignSlot(dirt)).isEqualTo(stoneSlot);
+
+        assertThat(dictionary.getSlot(stone)).isEqualTo(-1);
+        assertThat(dictionary.getSlot(stick)).isEqualTo(stickSlot);
+        assertThat(dictionary.getSlot(dirt)).isEqualTo(stoneSlot);
+    }
+
+    @Test
+    void testClientReplacesEvictedStack() {
+        var dictionary = new StackDictionary(1);
+        sendToClient(dictionary, stick);
+
+        // The stone is stored in the stick's slot, so a later reference to it has to be resolved to the stone
+        sendToClient(dictionary, stone);
+        var reference = sendToClient(dictionary, stone);
+        assertThat(reference.stack).isEqualTo(stone);
+
+        // The stick has to be defined again, instead of being referred to
+        var definition = sendToClient(dictionary, stick);
+        assertThat(definition.bytes).isGreaterThan(reference.bytes);
+        assertThat(definition.stack).isEqualTo(stick);
+    }
+
+    @Test
+    void testRollbackFreesUnsentSlots() {
+        var dictionary = new StackDictionary(16);
+        dictionary.assignSlot(stick);
+        dictionary.commit();
+
+        dictionary.assignSlot(stone);
+        dictionary.rollback();
+
+        assertThat(dictionary.getSlot(stone)).isEqualTo(-1);
+        assertThat(dictionary.getSlot(stick)).isEqualTo(0);
+        assertThat(dictionary.assignSlot(dirt)).isEqualTo(1);
+    }
+
+    @Test
+    void testRollbackRestoresEvictedStacks() {
+        var dictionary = new StackDictionary(2);
+        dictionary.assignSlot(stick);
+        dictionary.assignSlot(stone);
+        dictionary.commit();
+
+        dictionary.assignSlot(dirt);
+        dictionary.rollback();
+
+        // The stick is back in its slot and still the least recently used stack, so it is evicted again
+        assertThat(dictionary.assignSlot(dirt)).isEqualTo(0);
+        dictionary.rollback();
+
+        assertThat(dictionary.getSlot(dirt)).isEqualTo(-1);
+        assertThat(dictionary.getSlot(stick)).isEqualTo(0);
+        assertThat(dictionary.getSlot(stone)).isEqualTo(1);
+    }
+
+    @Test
+    void testUnknownReferenceRequestsResetOnce() {
+        var server = new StackDictionary(16);
+        sendToClient(server, stick);
+
+        // Simulates the client missing the definition of the stick
+        StackDictionary.clearClient();
+
+        var reference = sendToClient(server, stick);
+        assertThat(reference.stack).isNull();
+        assertThat(StackDictionary.pollClientResetRequest()).isTrue();
+
+        sendToClient(server, stick);
+        assertThat(StackDictionary.pollClientResetRequest()).isFalse();
+    }
+
+    @Test
+    void testClientStartsOverAfterReset() {
+        var server = new StackDictionary(16);
+        sendToClient(server, stick);
+        StackDictionary.markClientOutOfSync();
+        assertThat(StackDictionary.pollClientResetRequest()).isTrue();
+
+        // The server started over, which the client learns from the next update
+        server = new StackDictionary(16);
+        StackDictionary.clearClient();
+
+        var definition = sendToClient(server, stone);
+        assertThat(definition.stack).isEqualTo(stone);
+        assertThat(sendToClient(server, stone).stack).isEqualTo(stone);
+        assertThat(StackDictionary.pollClientResetRequest()).isFalse();
+    }
+
+    /**
+     * Writes an entry for the stack like the server does and reads it back like the client does.
+     */
+    private Received sendToClient(StackDictionary dictionary, IAEItemStack stack) {
+        var buffer = new FriendlyByteBuf(Unpooled.buffer());
+        int slot = dictionary.getSlot(stack);
+        if (slot >= 0) {
+            GridInventoryEntry.write(buffer, 1, null, slot, 1, 0, false);
+        } else {
+            slot = dictionary.assignSlot(stack);
+            GridInventoryEntry.write(buffer, 1, GridInventoryEntry.encodeStack(stack), slot, 1, 0, false);
+        }
+        dictionary.commit();
+
+        int bytes = buffer.readableBytes();
+        var entry = GridInventoryEntry.read(StorageChannels.items(), buffer);
+        assertThat(buffer.readableBytes()).isZero();
+        return new Received(entry.getStack(), bytes);
+    }
+
+    private static IAEItemStack stack(Item item) {
+        return AEItemStack.fromItemStack(new ItemStack(item));
+    }
+
+    private record Received(IAEItemStack stack, int bytes) {
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2021, TeamAppliedEnergistics, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.menu.me.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoSettings;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import appeng.api.storage.IMEMonitor;
+import appeng.api.storage.IMEMonitorHandlerReceiver;
+import appeng.api.storage.StorageChannels;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IAEStackList;
+import appeng.util.BootstrapMinecraft;
+import appeng.util.item.AEItemStack;
+
+@BootstrapMinecraft
+@MockitoSettings
+class StorageChangeJournalTest {
+
+    @Mock
+    IMEMonitor<IAEItemStack> monitor;
+
+    IAEStackList<IAEItemStack> storageList;
+
+    IMEMonitorHandlerReceiver<IAEItemStack> journal;
+
+    final List<StorageChangeJournal.Viewer<IAEItemStack>> viewers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        this.storageList = StorageChannels.items().createList();
+        when(this.monitor.getStorageList()).thenReturn(this.storageList);
+    }
+
+    @AfterEach
+    void closeViewers() {
+        for (var viewer : this.viewers) {
+            viewer.close();
+        }
+    }
+
+    @Test
+    void testIncrementalChangesAreSentOncePerViewer() {
+        setStored(Items.DIAMOND, 10);
+        var first = subscribe();
+        var second = subscribe();
+
+        var firstFull = write(first);
+        var secondFull = write(second);
+        assertThat(firstFull).containsExactly(Entry.added(1, Items.DIAMOND, 10));
+        assertThat(secondFull).isEqualTo(firstFull);
+
+        setStored(Items.DIAMOND, 15);
+        setStored(Items.STICK, 3);
+
+        assertThat(write(first)).containsExactlyInAnyOrder(Entry.updated(1, 15), Entry.added(2, Items.STICK, 3));
+        assertThat(write(first)).isEmpty();
+        assertThat(write(second)).containsExactlyInAnyOrder(Entry.updated(1, 15), Entry.added(2, Items.STICK, 3));
+        assertThat(write(second)).isEmpty();
+    }
+
+    /**
+     * A removed key is forgotten once all viewers sent the removal, and the stack gets a new serial when it comes back.
+     */
+    @Test
+    void testRemovedKeyIsForgottenAfterAllViewersSentIt() {
+        setStored(Items.DIAMOND, 10);
+        var first = subscribe();
+        var second = subscribe();
+        write(first);
+        write(second);
+
+        setStored(Items.DIAMOND, 0);
+        assertThat(write(first)).containsExactly(Entry.removed(1));
+        assertThat(write(second)).containsExactly(Entry.removed(1));
+        assertThat(first.getStackBySerial(1)).isNull();
+
+        setStored(Items.DIAMOND, 5);
+        assertThat(write(first)).containsExactly(Entry.added(2, Items.DIAMOND, 5));
+        assertThat(write(second)).containsExactly(Entry.added(2, Items.DIAMOND, 5));
+    }
+
+    /**
+     * A removal that one viewer already sent must not forget the key when the stack came back before the other viewer
+     * caught up, since that viewer's client still knows the stack by its serial.
+     */
+    @Test
+    void testRemovedKeyIsKeptIfAddedAgainBeforeTrim() {
+        setStored(Items.DIAMOND, 10);
+        var first = subscribe();
+        var second = subscribe();
+        write(first);
+        write(second);
+
+        setStored(Items.DIAMOND, 0);
+        assertThat(write(first)).containsExactly(Entry.removed(1));
+
+        setStored(Items.DIAMOND, 5);
+        assertThat(write(second)).containsExactly(Entry.removed(1), Entry.added(1, Items.DIAMOND, 5));
+        assertThat(second.getStackBySerial(1)).isNotNull();
+        assertThat(second.getStackBySerial(1).getItem()).isSameAs(Items.DIAMOND);
+
+        assertThat(write(first)).containsExactly(Entry.added(1, Items.DIAMOND, 5));
+        assertThat(first.getStackBySerial(1)).isNotNull();
+    }
+
+    /**
+     * A list update while viewers are at different positions in the journal makes all of them send a full update, and
+     * changes recorded before it are not sent again afterwards.
+     */
+    @Test
+    void testListUpdateWhileViewersAreBehind() {
+        setStored(Items.DIAMOND, 10);
+        var first = subscribe();
+        var second = subscribe();
+        write(first);
+        write(second);
+
+        setStored(Items.DIAMOND, 20);
+        write(first);
+        setStored(Items.STICK, 1);
+
+        this.journal.onListUpdate();
+
+        assertThat(first.isFullUpdate()).isTrue();
+        assertThat(second.isFullUpdate()).isTrue();
+        var firstFull = write(first);
+        assertThat(firstFull).extracting(Entry::item, Entry::storedAmount)
+                .containsExactlyInAnyOrder(tuple(Items.DIAMOND, 20L), tuple(Items.STICK, 1L));
+        assertThat(write(second)).containsExactlyInAnyOrderElementsOf(firstFull);
+        assertThat(first.hasChanges()).isFalse();
+        assertThat(second.hasChanges()).isFalse();
+
+        var stickSerial = firstFull.stream().filter(e -> e.item() == Items.STICK).findFirst().get().serial();
+        setStored(Items.STICK, 2);
+        assertThat(write(first)).containsExactly(Entry.updated(stickSerial, 2));
+        assertThat(write(second)).containsExactly(Entry.updated(stickSerial, 2));
+    }
+
+    /**
+     * A viewer that subscribes while others have unsent changes gets those through its full update, while the others
+     * still get them as incremental changes.
+     */
+    @Test
+    void testSubscribeWhileOthersHaveUnsentChanges() {
+        setStored(Items.DIAMOND, 10);
+        var first = subscribe();
+        write(first);
+
+        setStored(Items.DIAMOND, 30);
+        assertThat(first.hasChanges()).isTrue();
+
+        var second = subscribe();
+        assertThat(write(second)).containsExactly(Entry.added(1, Items.DIAMOND, 30));
+        assertThat(write(second)).isEmpty();
+        assertThat(write(first)).containsExactly(Entry.updated(1, 30));
+
+        setStored(Items.DIAMOND, 40);
+        assertThat(write(second)).containsExactly(Entry.updated(1, 40));
+        assertThat(write(first)).containsExactly(Entry.updated(1, 40));
+    }
+
+    private StorageChangeJournal.Viewer<IAEItemStack> subscribe() {
+        var viewer = StorageChangeJournal.subscribe(this.monitor);
+        if (this.journal == null) {
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<IMEMonitorHandlerReceiver<IAEItemStack>> captor = ArgumentCaptor
+                    .forClass(IMEMonitorHandlerReceiver.class);
+            verify(this.monitor).addListener(captor.capture(), any());
+            this.journal = captor.getValue();
+        }
+        this.viewers.add(viewer);
+        return viewer;
+    }
+
+    /**
+     * Changes the stored amount of an item and notifies the journal, like the network monitor would.
+     */
+    private void setStored(Item item, long amount) {
+        var stack = AEItemStack.fromItemStack(new ItemStack(item));
+        var stored = this.storageList.findPrecise(stack);
+        if (stored != null) {
+            stored.setStackSize(amount);
+        } else {
+            stack.setStackSize(amount);
+            this.storageList.add(stack);
+        }
+
+        if (this.journal != null) {
+            this.journal.postChange(this.monitor, List.of(stack), null);
+        }
+    }
+
+    private static List<Entry> write(StorageChangeJournal.Viewer<IAEItemStack> viewer) {
+        var entries = new ArrayList<Entry>();
+        viewer.writeChanges(new StorageChangeJournal.ChangeSink<>() {
+            @Override
+            public void addNew(StorageChangeJournal.Key<IAEItemStack> key, long storedAmount, long requestableAmount,
+                    boolean craftable) {
+                entries.add(new Entry(key.getSerial(), key.getStack().getItem(), storedAmount));
+            }
+
+            @Override
+            public void update(long serial, long storedAmount, long requestableAmount, boolean craftable) {
+                entries.add(new Entry(serial, null, storedAmount));
+            }
+        });
+        return entries;
+    }
+
+    /**
+     * An entry sent to the client. The item is only sent along with the serial if the client doesn't know it yet.
+     */
+    record Entry(long serial, @Nullable Item item, long storedAmount) {
+        static Entry added(long serial, Item item, long storedAmount) {
+            return new Entry(serial, item, storedAmount);
+        }
+
+        static Entry updated(long serial, long storedAmount) {
+            return new Entry(serial, null, storedAmount);
+        }
+
+        static Entry removed(long serial) {
+            return new Entry(serial, null, 0);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2021, TeamAppliedEnergistics, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.item;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import appeng.util.BootstrapMinecraft;
+
+@BootstrapMinecraft
+class AEItemStackRegistryTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        Bootstrap.bootStrap();
+    }
+
+    @Test
+    void testEqualStacksShareDefinition() {
+        var first = new ItemStack(Items.DIAMOND, 12);
+        var second = new ItemStack(Items.DIAMOND, 5);
+
+        var registered = AEItemStackRegistry.getRegisteredStack(first);
+        assertSame(registered, AEItemStackRegistry.getRegisteredStack(second));
+        assertEquals(1, registered.getDefinition().getCount());
+    }
+
+    @Test
+    void testInputIsNotModified() {
+        var stack = new ItemStack(Items.DIAMOND, 12);
+
+        var registered = AEItemStackRegistry.getRegisteredStack(stack);
+        assertEquals(12, stack.getCount());
+        assertNotSame(stack, registered.getDefinition());
+    }
+
+    @Test
+    void testDifferentNbtOrCapsAreDistinct() {
+        var testItem = new TestItemWithCaps();
+
+        var plain = new ItemStack(testItem);
+        var named = new ItemStack(testItem);
+        named.setHoverName(new TextComponent("Hello World"));
+
+        CompoundTag capNbt = new CompoundTag();
+        capNbt.putInt("Parent", 1);
+        var withCap = new ItemStack(testItem, 1, capNbt);
+        withCap.setHoverName(new TextComponent("Hello World"));
+
+        var registeredPlain = AEItemStackRegistry.getRegisteredStack(plain);
+        var registeredNamed = AEItemStackRegistry.getRegisteredStack(named);
+        var registeredWithCap = AEItemStackRegistry.getRegisteredStack(withCap);
+        assertNotSame(registeredPlain, registeredNamed);
+        assertNotSame(registeredNamed, registeredWithCap);
+        assertSame(registeredWithCap, AEItemStackRegistry.getRegisteredStack(withCap.copy()));
+        assertEquals(new AESharedItemStack(withCap.copy()).hashCode(), registeredWithCap.hashCode());
+    }
+}